@@ -0,0 +1,65 @@
+package io.github.example_name;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FenceAndPath's neighbour masks: reading the cached mask of every fence on
+ * the map, and rebuilding all masks and chunk lists as after loading a save.
+ * No textures are needed for either.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenceIndexBenchmark {
+
+    // share of land cells with a fence on them
+    @Param({ "0.02", "0.25" })
+    public double density;
+
+    private WorldState world;
+    private FenceAndPath fences;
+
+    @Setup
+    public void setUp() {
+        world = new WorldState(Island.WIDTH, Island.HEIGHT);
+        fences = new FenceAndPath(world, 32, null, null);
+        Random r = new Random(7);
+        for (int y = 0; y < world.height; y++)
+            for (int x = 0; x < world.width; x++)
+                if (world.terrain(world.index(x, y)) != 0 && r.nextDouble() < density) fences.placeFence(x, y);
+    }
+
+    @Benchmark
+    public int allFenceIndices() {
+        int sum = 0;
+        for (int y = 0; y < world.height; y++) {
+            int i = world.index(0, y);
+            for (int x = 0; x < world.width; x++, i++) {
+                if (world.structure(i) == WorldState.STRUCTURE_FENCE) sum += fences.getFenceIndex(x, y);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int rebuild() {
+        fences.rebuild();
+        return fences.getStructureCount();
+    }
+}
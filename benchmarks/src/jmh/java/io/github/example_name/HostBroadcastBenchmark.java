@@ -0,0 +1,140 @@
+package io.github.example_name;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Host broadcast fan-out over loopback: one call queues a burst of chat frames
+ * to every connected client and returns once all of them have read every byte,
+ * so it measures the selector thread's write path end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HostBroadcastBenchmark {
+
+    private static final int PORT = 5917;
+    private static final int BURST = 64;
+
+    @Param({ "4", "32" })
+    public int clients;
+
+    private Host host;
+    private SocketChannel[] channels;
+    private Thread[] readers;
+    private final AtomicLong received = new AtomicLong();
+    private volatile boolean open;
+    private long frameBytes;
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        host = new Host(PORT, null);
+        host.start();
+
+        open = true;
+        channels = new SocketChannel[clients];
+        readers = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            channels[c] = connect();
+            SocketChannel ch = channels[c];
+            readers[c] = new Thread(() -> drain(ch), "bench-client-" + c);
+            readers[c].setDaemon(true);
+            readers[c].start();
+        }
+
+        // wait for every welcome message so later counts only include our frames
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.get() == 0 || !allConnected()) {
+            if (System.currentTimeMillis() > deadline) throw new IllegalStateException("clients never connected");
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        ByteBuffer probe = frame();
+        frameBytes = probe.remaining();
+        Protocol.POOL.release(probe);
+        expected = received.get();
+    }
+
+    private boolean allConnected() {
+        for (SocketChannel ch : channels) if (!ch.isConnected()) return false;
+        return true;
+    }
+
+    private static SocketChannel connect() throws Exception {
+        // the Host binds on its own thread, retry until it is listening
+        for (int attempt = 0; ; attempt++) {
+            try {
+                SocketChannel ch = SocketChannel.open(new InetSocketAddress("127.0.0.1", PORT));
+                ch.socket().setTcpNoDelay(true);
+                return ch;
+            } catch (IOException e) {
+                if (attempt > 100) throw e;
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private void drain(SocketChannel ch) {
+        ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        try {
+            while (open) {
+                buf.clear();
+                int n = ch.read(buf);
+                if (n < 0) return;
+                received.addAndGet(n);
+            }
+        } catch (IOException e) {
+            // closed at tear down
+        }
+    }
+
+    private static ByteBuffer frame() {
+        ByteBuffer frame = Protocol.POOL.acquire();
+        Protocol.writeChat(frame, "[Client 127.0.0.1]: the wheat by the north fence is ready to harvest");
+        frame.flip();
+        return frame;
+    }
+
+    @Benchmark
+    public long broadcastBurst() throws InterruptedException {
+        for (int f = 0; f < BURST; f++) {
+            host.broadcastFrame(frame());
+        }
+        expected += BURST * frameBytes * clients;
+        while (received.get() < expected) {
+            Thread.yield();
+        }
+        return expected;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        open = false;
+        host.stop();
+        for (SocketChannel ch : channels) ch.close();
+        for (Thread t : readers) t.join(1000);
+    }
+}
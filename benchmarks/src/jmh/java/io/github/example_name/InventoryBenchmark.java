@@ -0,0 +1,67 @@
+package io.github.example_name;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory slot lookups on a full 11-slot inventory (9 hotbar + 2 extra, as
+ * in Core), with names built at runtime so equals() can't short-circuit on
+ * identity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    private static final String[] ITEMS = {
+        "Hoe", "WHEAT_SEED", "CARROT_SEED", "POTATO_SEED", "BLUEBERRY_SEED",
+        "WHEAT", "CARROT", "POTATO", "Fence", "Stone Path", null
+    };
+
+    private final String[] items = new String[ITEMS.length];
+    private final int[] counts = new int[ITEMS.length];
+    private String last, missing;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEMS.length; i++) {
+            items[i] = ITEMS[i] == null ? null : new String(ITEMS[i]);
+            counts[i] = ITEMS[i] == null ? 0 : 5;
+        }
+        last = new String("Stone Path");
+        missing = new String("BLUEBERRY");
+    }
+
+    @Benchmark
+    public boolean hasLastItem() {
+        return InventorySlots.has(items, counts, last);
+    }
+
+    @Benchmark
+    public boolean hasMissingItem() {
+        return InventorySlots.has(items, counts, missing);
+    }
+
+    @Benchmark
+    public int stackOrEmpty() {
+        return InventorySlots.stackOrEmpty(items, missing);
+    }
+
+    @Benchmark
+    public int firstFree() {
+        return InventorySlots.firstFree(items, last);
+    }
+}
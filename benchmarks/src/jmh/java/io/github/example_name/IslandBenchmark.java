@@ -0,0 +1,58 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.Array;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** World generation: terrain, sand border and decor for every chunk of a map, on one thread and on the ForkJoin pool. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IslandBenchmark {
+
+    // the start island, and a larger farm
+    @Param({"170x130", "1024x1024"})
+    public String size;
+
+    private final Array<WorldChunk> chunks = new Array<>();
+
+    @Setup
+    public void setUp() {
+        String[] wh = size.split("x");
+        int chunksX = (Integer.parseInt(wh[0]) + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        int chunksY = (Integer.parseInt(wh[1]) + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        chunks.clear();
+        for (int cy = 0; cy < chunksY; cy++)
+            for (int cx = 0; cx < chunksX; cx++) {
+                WorldChunk chunk = new WorldChunk();
+                chunk.reset(cx, cy);
+                chunks.add(chunk);
+            }
+    }
+
+    @Benchmark
+    public int sequential() {
+        for (int n = 0; n < chunks.size; n++) Island.generateChunk(Island.DEFAULT_SEED, chunks.get(n));
+        return chunks.get(0).terrain[0];
+    }
+
+    @Benchmark
+    public int parallel() {
+        Island.generateChunks(Island.DEFAULT_SEED, chunks, 0, chunks.size);
+        return chunks.get(0).terrain[0];
+    }
+}
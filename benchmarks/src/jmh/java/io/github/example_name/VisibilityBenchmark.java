@@ -0,0 +1,71 @@
+package io.github.example_name;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terrain visibility: the camera-to-tile range Core computes each frame, and
+ * walking the land cells inside it as the terrain and crop passes do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisibilityBenchmark {
+
+    private static final int TILE_SIZE = 32;
+
+    @Param({ "1280x960", "2560x1440" })
+    public String viewport;
+
+    private float viewWidth, viewHeight;
+    private WorldState world;
+    private final VisibleRange visible = new VisibleRange();
+    private float cameraX;
+
+    @Setup
+    public void setUp() {
+        String[] size = viewport.split("x");
+        viewWidth = Float.parseFloat(size[0]);
+        viewHeight = Float.parseFloat(size[1]);
+        world = new WorldState(Island.WIDTH, Island.HEIGHT);
+        cameraX = Island.WIDTH * TILE_SIZE / 2f;
+    }
+
+    @Benchmark
+    public int visibleRange() {
+        // pan a little every call so the range keeps changing
+        cameraX += 7f;
+        if (cameraX > Island.WIDTH * TILE_SIZE) cameraX = 0f;
+        visible.set(cameraX, Island.HEIGHT * TILE_SIZE / 2f, viewWidth, viewHeight,
+            TILE_SIZE, VisibleRange.DEFAULT_MARGIN, Island.WIDTH, Island.HEIGHT);
+        return visible.maxX - visible.minX;
+    }
+
+    @Benchmark
+    public int visibleLandCells() {
+        visible.set(Island.WIDTH * TILE_SIZE / 2f, Island.HEIGHT * TILE_SIZE / 2f, viewWidth, viewHeight,
+            TILE_SIZE, VisibleRange.DEFAULT_MARGIN, Island.WIDTH, Island.HEIGHT);
+        int land = 0;
+        for (int y = visible.minY; y <= visible.maxY; y++) {
+            int i = world.index(visible.minX, y);
+            for (int x = visible.minX; x <= visible.maxX; x++, i++) {
+                if (world.terrain(i) != 0) land++;
+            }
+        }
+        return land;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.example_name;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-tick world update: decor regrowth through WorldSimulation, and the
+ * crop growth sweep Core does over the visible cells every frame.
+ *
+ * Each benchmark has its own state: regrowMinute needs its timers reset
+ * before every call (a per-invocation setup, fine for a call of many
+ * milliseconds), while cropSweep takes microseconds and only reads, so it is
+ * set up once per trial and never pays for that reset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldUpdateBenchmark {
+
+    private static final int TILE_SIZE = 32;
+    private static final float STEP = 1f / FixedStep.DEFAULT_RATE;
+    private static final int TICKS_PER_MINUTE = (int) (60 * FixedStep.DEFAULT_RATE);
+
+    // every grass cell has a crop planted at a random point of its growth;
+    // regrowDue, if given, gets a regrow time somewhere in the next minute per grass cell
+    private static WorldState plantedWorld(float[] regrowDue) {
+        WorldState world = new WorldState(Island.WIDTH, Island.HEIGHT);
+        Random r = new Random(1);
+        for (int i = 0; i < world.cellCount(); i++) {
+            if (world.terrain(i) != 1) continue;
+            float due = 0.01f + r.nextFloat() * WorldSimulation.REGROW_TIME;
+            if (regrowDue != null) regrowDue[i] = due;
+            world.setTilled(i, true);
+            world.plantCrop(i, r.nextInt(4), -r.nextFloat() * WorldState.CROP_GROW_TIME);
+        }
+        return world;
+    }
+
+    @State(Scope.Thread)
+    public static class Regrowth {
+        WorldState world;
+        WorldSimulation sim;
+        float[] regrowDue;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            regrowDue = new float[Island.WIDTH * Island.HEIGHT];
+            world = plantedWorld(regrowDue);
+            sim = new WorldSimulation(world, TILE_SIZE);
+        }
+
+        @Setup(Level.Invocation)
+        public void resetTimers() {
+            sim.getClock().set(0);
+            for (int i = 0; i < regrowDue.length; i++) world.setRegrowDue(i, regrowDue[i]);
+            sim.rescheduleRegrowth();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Crops {
+        WorldState world;
+        final GameClock clock = new GameClock();
+        final VisibleRange visible = new VisibleRange();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            world = plantedWorld(null);
+            // a 1280x960 window around the middle of the island
+            visible.set(Island.WIDTH * TILE_SIZE / 2f, Island.HEIGHT * TILE_SIZE / 2f, 1280, 960,
+                TILE_SIZE, VisibleRange.DEFAULT_MARGIN, Island.WIDTH, Island.HEIGHT);
+        }
+    }
+
+    /** One minute of game time at the fixed tick rate, every pending regrow timer firing along the way. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int regrowMinute(Regrowth state) {
+        for (int t = 0; t < TICKS_PER_MINUTE; t++) {
+            state.sim.tick(STEP);
+        }
+        return state.sim.getPendingEvents();
+    }
+
+    /** Growth and ripeness of every crop on screen, as Core's crop pass computes them. */
+    @Benchmark
+    public float cropSweep(Crops state) {
+        WorldState world = state.world;
+        VisibleRange visible = state.visible;
+        float now = state.clock.now();
+        float total = 0f;
+        int ripe = 0;
+        for (int y = visible.minY; y <= visible.maxY; y++) {
+            int i = world.index(visible.minX, y);
+            for (int x = visible.minX; x <= visible.maxX; x++, i++) {
+                if (!world.hasCrop(i)) continue;
+                total += world.cropGrowth(i, now);
+                if (world.isCropRipe(i, now)) ripe++;
+            }
+        }
+        return total + ripe;
+    }
+}
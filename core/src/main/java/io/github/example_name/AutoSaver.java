@@ -0,0 +1,153 @@
+package io.github.example_name;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the world on a background thread.
+ *
+ * {@link #save} runs on the GL thread and only snapshots the live world into
+ * one of two preallocated buffers (copies of its modified resident chunks, the
+ * paged-out ones are pinned and read from the page file), then hands the
+ * buffer to a single writer thread that encodes it with WorldSave and forces
+ * it to disk. While one buffer is being written the next
+ * save fills the other one; if both are still busy the save is skipped rather
+ * than making the frame wait. The last save before exit goes through
+ * {@link #saveNow}, which waits instead of skipping.
+ */
+public class AutoSaver {
+
+    private final File file;
+    private final ExecutorService writer;
+
+    private final WorldState[] worlds = new WorldState[2];
+    private final WorldSave.Meta[] metas = new WorldSave.Meta[2];
+    private final boolean[] busy = new boolean[2];   // guarded by this
+    private int next = 0;
+
+    // --- metrics (written by either thread, read by the HUD) ---
+    private volatile long lastSnapshotNanos, maxSnapshotNanos;
+    private volatile long lastWriteNanos, maxWriteNanos;
+    private volatile int saveCount, skipCount, failCount;
+
+    public AutoSaver(File file, int width, int height, long seed, int slots) {
+        this.file = file;
+        for (int b = 0; b < 2; b++) {
+            worlds[b] = new WorldState(width, height, seed);
+            metas[b] = new WorldSave.Meta(slots);
+        }
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "autosave");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Snapshots {@code world} and {@code meta} and queues the write. Call from
+     * the thread that owns the world. Returns false if the save was skipped
+     * because both buffers are still being written.
+     */
+    public boolean save(WorldState world, WorldSave.Meta meta) {
+        long start = System.nanoTime();
+
+        final int b;
+        synchronized (this) {
+            if (busy[next]) next ^= 1;
+            if (busy[next]) {
+                skipCount++;
+                return false;
+            }
+            b = next;
+            busy[b] = true;
+            next ^= 1;
+        }
+
+        worlds[b].copyFrom(world);
+        metas[b].copyFrom(meta);
+
+        long snapshot = System.nanoTime() - start;
+        lastSnapshotNanos = snapshot;
+        if (snapshot > maxSnapshotNanos) maxSnapshotNanos = snapshot;
+
+        writer.execute(() -> write(b));
+        return true;
+    }
+
+    /**
+     * Like {@link #save} but never skipped: waits for a free buffer, then for
+     * the write to reach the disk. For the final save before shutting down.
+     * Returns false if the write failed.
+     */
+    public boolean saveNow(WorldState world, WorldSave.Meta meta) {
+        boolean interrupted = false;
+        int failed = failCount;
+        synchronized (this) {
+            while (busy[0] && busy[1]) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;   // shutting down is the usual reason, finish the save first
+                }
+            }
+            next = busy[next] ? next ^ 1 : next;
+        }
+
+        final int b = next;
+        if (!save(world, meta)) throw new IllegalStateException("Saved from two threads");
+        synchronized (this) {
+            while (busy[b]) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return failCount == failed;
+    }
+
+    private void write(int b) {
+        long start = System.nanoTime();
+        try {
+            WorldSave.write(file, worlds[b], metas[b]);
+            long took = System.nanoTime() - start;
+            lastWriteNanos = took;
+            if (took > maxWriteNanos) maxWriteNanos = took;
+            saveCount++;
+        } catch (Exception e) {
+            failCount++;
+            System.out.println("Autosave failed: " + e.getMessage());
+        } finally {
+            worlds[b].releaseSnapshot();
+            synchronized (this) {
+                busy[b] = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /** Waits for queued saves to finish and stops the writer thread. */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.out.println("Autosave still running at shutdown, giving up");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public float getLastSnapshotMs() { return lastSnapshotNanos / 1e6f; }
+    public float getMaxSnapshotMs() { return maxSnapshotNanos / 1e6f; }
+    public float getLastWriteMs() { return lastWriteNanos / 1e6f; }
+    public float getMaxWriteMs() { return maxWriteNanos / 1e6f; }
+    public int getSaveCount() { return saveCount; }
+    public int getSkipCount() { return skipCount; }
+    public int getFailCount() { return failCount; }
+}
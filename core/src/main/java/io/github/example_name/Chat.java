@@ -4,21 +4,32 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.graphics.GL20;
-
-import java.util.ArrayList;
-import java.util.List;
 
 public class Chat {
 
-    private final List<String> messages = new ArrayList<>();
+    private static final int MAX_CHAT_LINES = 50;
+    private static final int VISIBLE_LINES = 7;
+    private static final int LINE_HEIGHT = 20;
+
+    // Ring of the last MAX_CHAT_LINES messages, head is the next slot to write
+    private final String[] messages = new String[MAX_CHAT_LINES];
+    private int head = 0;
+    private int messageCount = 0;
+
     private final StringBuilder input = new StringBuilder();
+    private final StringBuilder inputLine = new StringBuilder();   // "> " + input + "_"
+
+    // Laid-out text, rebuilt only when the lines change (see draw)
+    private BitmapFont cacheFont;
+    private BitmapFontCache titleCache;
+    private BitmapFontCache inputCache;
+    private final BitmapFontCache[] lineCaches = new BitmapFontCache[VISIBLE_LINES];
+    private boolean linesDirty = true;
+    private boolean inputDirty = true;
 
     private boolean active = false;
-    private static final int MAX_CHAT_LINES = 50;
     private Client client;
     // Layout
     private final int width = 420;
@@ -70,6 +81,7 @@ public class Chat {
                 // Activate chat box
                 active = true;
             }
+            inputDirty = true;
         }
 
         if (!active) return;
@@ -84,6 +96,7 @@ public class Chat {
             if (Gdx.input.isKeyJustPressed(key)) {
                 char c = (char) ('a' + (key - Input.Keys.A));
                 input.append(c);
+                inputDirty = true;
             }
         }
 
@@ -92,77 +105,87 @@ public class Chat {
             if (Gdx.input.isKeyJustPressed(key)) {
                 char c = (char) ('0' + (key - Input.Keys.NUM_0));
                 input.append(c);
+                inputDirty = true;
             }
         }
 
         // Space
         if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
             input.append(' ');
+            inputDirty = true;
         }
 
         // Backspace
         if (Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE) && input.length() > 0) {
             input.deleteCharAt(input.length() - 1);
+            inputDirty = true;
         }
     }
 
-    /** Add a line to the chat history (for local or future network messages). */
+    /** Add a line to the chat history (for local or future network messages). GL thread only. */
     public void addMessage(String msg) {
-        messages.add(msg);
-        if (messages.size() > MAX_CHAT_LINES) {
-            messages.remove(0);
-        }
+        messages[head] = msg;
+        head = (head + 1) % MAX_CHAT_LINES;
+        if (messageCount < MAX_CHAT_LINES) messageCount++;
+        linesDirty = true;
     }
 
-    /** Draws the chat overlay in screen space (call at the end of Core.render()). */
-    public void draw(ShapeRenderer shapeRenderer, SpriteBatch batch, BitmapFont font) {
-        // Switch to screen-space projection
-        Matrix4 uiMatrix = new Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()
-        );
-
-        shapeRenderer.setProjectionMatrix(uiMatrix);
-        batch.setProjectionMatrix(uiMatrix);
-
-        // Background panel (with alpha)
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(0f, 0f, 0f, 0.25f);  // 25% opaque
-        shapeRenderer.rect(x, y, width, height);
-        shapeRenderer.end();
-
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-
-
-        batch.begin();
-        Color oldColor = font.getColor().cpy();
-
-        // Title
-        font.setColor(Color.WHITE);
-        font.draw(batch, "Chat", x + 8, y + height - 8);
+    /** The {@code age}-th newest message (0 = newest), age < messageCount. */
+    private String recentMessage(int age) {
+        return messages[(head - 1 - age + MAX_CHAT_LINES) % MAX_CHAT_LINES];
+    }
 
-        // Show last N lines
-        int visibleLines = 7;
-        int lineHeight = 20;
-        int count = Math.min(visibleLines, messages.size());
-        for (int i = 0; i < count; i++) {
-            String line = messages.get(messages.size() - 1 - i);
-            font.draw(batch, line, x + 8, y + height - 24 - i * lineHeight);
+    /**
+     * Draws the chat overlay into Core's HUD pass (the batch is already begun in screen space).
+     * The title, message lines and input line are kept as BitmapFontCaches and only laid out
+     * again after addMessage or a change to the input, so a quiet frame just submits glyphs.
+     */
+    public void draw(SpriteBatch batch, BitmapFont font, HudContext hud) {
+        // Background panel
+        hud.rect(batch, x, y, width, height, 0f, 0f, 0f, 0.25f);  // 25% opaque
+
+        if (font != cacheFont) createCaches(font);
+
+        if (linesDirty) {
+            linesDirty = false;
+            int count = Math.min(VISIBLE_LINES, messageCount);
+            for (int i = 0; i < VISIBLE_LINES; i++) {
+                if (i < count) lineCaches[i].setText(recentMessage(i), x + 8, y + height - 24 - i * LINE_HEIGHT);
+                else lineCaches[i].clear();
+            }
         }
 
         // Input line / hint
-        if (active) {
-            font.setColor(Color.YELLOW);
-            font.draw(batch, "> " + input.toString() + "_", x + 8, y + 18);
-        } else {
-            font.setColor(Color.GRAY);
-            font.draw(batch, "Press ENTER to chat", x + 8, y + 18);
+        if (inputDirty) {
+            inputDirty = false;
+            if (active) {
+                inputLine.setLength(0);
+                inputLine.append("> ").append(input).append('_');
+                inputCache.setColor(Color.YELLOW);
+                inputCache.setText(inputLine, x + 8, y + 18);
+            } else {
+                inputCache.setColor(Color.GRAY);
+                inputCache.setText("Press ENTER to chat", x + 8, y + 18);
+            }
         }
 
-        font.setColor(oldColor);
-        batch.end();
+        titleCache.draw(batch);
+        for (BitmapFontCache line : lineCaches) line.draw(batch);
+        inputCache.draw(batch);
+    }
+
+    private void createCaches(BitmapFont font) {
+        cacheFont = font;
+        titleCache = new BitmapFontCache(font);
+        titleCache.setColor(Color.WHITE);
+        titleCache.setText("Chat", x + 8, y + height - 8);
+        for (int i = 0; i < VISIBLE_LINES; i++) {
+            lineCaches[i] = new BitmapFontCache(font);
+            lineCaches[i].setColor(Color.WHITE);
+        }
+        inputCache = new BitmapFontCache(font);
+        linesDirty = true;
+        inputDirty = true;
     }
 
     /** Returns whether chat is currently focused (used to disable movement). */
@@ -0,0 +1,140 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Swap file for modified chunks that ChunkStore evicted, so a large world
+ * keeps only its recently used chunks on the heap.
+ *
+ * The file is a temporary scratch area (deleted on exit), not a save: each
+ * paged chunk takes one WorldChunk.BYTES slot, written and read with
+ * positional FileChannel calls.
+ *
+ * The owning thread pages chunks in and out. An autosave snapshot may read
+ * slots from its writer thread at the same time, so while any snapshot is
+ * {@link #pin pinned} the slots of chunks that were paged back in are not
+ * reused, only parked until the last pin is released.
+ */
+public class ChunkPager {
+
+    private final LongMap<Integer> slots = new LongMap<>();   // chunk key -> slot
+    private final IntArray free = new IntArray();
+    private final IntArray retired = new IntArray();
+    private final AtomicInteger pins = new AtomicInteger();
+    private int slotCount = 0;
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private final ByteBuffer ioBuffer = ByteBuffer.allocateDirect(WorldChunk.BYTES);
+
+    public boolean contains(long key) {
+        return slots.containsKey(key);
+    }
+
+    public int size() {
+        return slots.size;
+    }
+
+    /** Writes {@code chunk} out under {@code key}. */
+    public void pageOut(long key, WorldChunk chunk) throws IOException {
+        open();
+        int slot = allocate();
+        ioBuffer.clear();
+        chunk.write(ioBuffer);
+        ioBuffer.flip();
+        writeFully(ioBuffer, (long) slot * WorldChunk.BYTES);
+        slots.put(key, slot);
+    }
+
+    /** Reads the chunk paged out under {@code key} into {@code out} and forgets it. */
+    public void pageIn(long key, WorldChunk out) {
+        Integer slot = slots.remove(key);
+        if (slot == null) throw new IllegalStateException("Chunk not paged out");
+        read(slot, out, ioBuffer);
+        retired.add(slot);
+    }
+
+    /** Slot holding the chunk paged out under {@code key}, or -1. */
+    int slotOf(long key) {
+        Integer slot = slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /** Appends the key of every paged chunk to {@code out}. */
+    void addKeys(LongArray out) {
+        LongMap.Keys keys = slots.keys();
+        while (keys.hasNext) out.add(keys.next());
+    }
+
+    /** Keys and slots of every paged chunk, for a snapshot. */
+    void copyIndex(LongMap<Integer> out) {
+        out.clear();
+        out.putAll(slots);
+    }
+
+    /** Reads a slot without changing the index. Safe from a snapshot's thread while it is pinned. */
+    void read(int slot, WorldChunk out, ByteBuffer buffer) {
+        buffer.clear();
+        try {
+            long position = (long) slot * WorldChunk.BYTES;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Page file truncated");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read paged chunk", e);
+        }
+        buffer.flip();
+        out.read(buffer);
+    }
+
+    void pin() {
+        pins.incrementAndGet();
+    }
+
+    void unpin() {
+        pins.decrementAndGet();
+    }
+
+    private int allocate() {
+        if (retired.size > 0 && pins.get() == 0) {
+            free.addAll(retired);
+            retired.clear();
+        }
+        return free.size > 0 ? free.pop() : slotCount++;
+    }
+
+    private void open() throws IOException {
+        if (channel != null) return;
+        File swap = File.createTempFile("world-", ".chunks");
+        swap.deleteOnExit();
+        file = new RandomAccessFile(swap, "rw");
+        channel = file.getChannel();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    public void close() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException e) {
+            System.out.println("[ChunkPager] Could not close page file: " + e.getMessage());
+        }
+        file = null;
+        channel = null;
+    }
+}
@@ -0,0 +1,381 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The chunks of one world, generated on demand from the seed.
+ *
+ * At most {@code maxResident} chunks are kept on the heap in an LRU list. When
+ * another one is needed the least recently used chunk is dropped if it is
+ * still as generated, or paged out to a {@link ChunkPager} if it was modified,
+ * and read back from there the next time it is touched. The chunks around the
+ * players are touched every frame (rendering, movement, replication), so the
+ * ones that leave are the ones far from every player.
+ *
+ * Chunks stored in a save are read lazily: {@link #attachSave} only records
+ * which regions the save holds, and each one is read from the open
+ * WorldSave.Reader the first time its chunk is touched (or written back out).
+ *
+ * A store can also be a read-only snapshot of another one for saving (see
+ * {@link #copyFrom}): it holds copies of the modified resident chunks and a
+ * pinned view of the source's paged chunks, and never generates or evicts.
+ *
+ * Owner thread only; a snapshot belongs to the thread that writes it.
+ */
+public class ChunkStore {
+
+    public static final int DEFAULT_MAX_RESIDENT = 256;   // 256 chunks of 32x32, about 4 MB
+
+    public interface Visitor {
+        void visit(WorldChunk chunk);
+    }
+
+    private final long seed;
+    private int shoreRadius;   // the source's while this is a snapshot
+    private final int maxResident;
+    private final LongMap<WorldChunk> resident = new LongMap<>();
+    private WorldChunk newest, oldest;
+
+    // the chunk of the last lookup, most accesses hit the same one
+    private WorldChunk last;
+    private int lastCx = Integer.MIN_VALUE, lastCy = Integer.MIN_VALUE;
+
+    private final ChunkPager ownPager = new ChunkPager();
+    private ChunkPager pager = ownPager;   // the source's pager while this is a snapshot
+    private final Array<WorldChunk> pending = new Array<>();   // chunks being prefetched
+
+    // regions of an attached save that haven't been read yet
+    private WorldSave.Reader save;
+    private final LongByteMap unread = new LongByteMap();
+    private final LongArray loadedFromSave = new LongArray();
+    private ByteBuffer regionBuffer;
+
+    // snapshot state
+    private boolean snapshot;
+    private final LongMap<Integer> pagedIndex = new LongMap<>();
+    private final Array<WorldChunk> spare = new Array<>();
+    private ByteBuffer readBuffer;
+
+    public ChunkStore(long seed, int maxResident) {
+        this(seed, Island.DEFAULT_SHORE_RADIUS, maxResident);
+    }
+
+    /** Chunks generated from {@code seed} with sand up to {@code shoreRadius} tiles from land. */
+    public ChunkStore(long seed, int shoreRadius, int maxResident) {
+        this.seed = seed;
+        this.shoreRadius = shoreRadius;
+        this.maxResident = Math.max(4, maxResident);
+    }
+
+    public static long key(int cx, int cy) {
+        return LongByteMap.pack(cx, cy);
+    }
+
+    /** The chunk at chunk coordinates (cx, cy), generating or paging it in if needed. */
+    public WorldChunk get(int cx, int cy) {
+        if (cx == lastCx && cy == lastCy) return last;
+
+        long key = key(cx, cy);
+        WorldChunk chunk = resident.get(key);
+        if (chunk == null) {
+            if (snapshot) throw new IllegalStateException("Snapshots only hold modified chunks");
+            chunk = load(cx, cy, key);
+        } else {
+            unlink(chunk);
+        }
+        linkNewest(chunk);
+
+        last = chunk;
+        lastCx = cx;
+        lastCy = cy;
+        return chunk;
+    }
+
+    private WorldChunk load(int cx, int cy, long key) {
+        WorldChunk chunk = new WorldChunk();
+        chunk.reset(cx, cy);
+        if (pager.contains(key)) {
+            pager.pageIn(key, chunk);
+        } else {
+            Island.generateChunk(seed, shoreRadius, chunk);
+            if (unread.containsKey(key)) {
+                unread.remove(key);
+                readSaved(chunk);
+                loadedFromSave.add(key);
+            }
+        }
+        insert(key, chunk);
+        return chunk;
+    }
+
+    private void readSaved(WorldChunk chunk) {
+        if (regionBuffer == null) regionBuffer = WorldSave.Reader.newRegionBuffer();
+        try {
+            save.readRegion(chunk.cx, chunk.cy, chunk, regionBuffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(long key, WorldChunk chunk) {
+        if (resident.size >= maxResident) evictOldest();
+        resident.put(key, chunk);
+    }
+
+    /**
+     * Makes every chunk in [minCx, maxCx] x [minCy, maxCy] resident, generating
+     * the missing ones in parallel (see Island#generateChunks) instead of one
+     * at a time on first touch. At most half the cache is filled per call so a
+     * large area can't evict its own chunks.
+     */
+    public void prefetch(int minCx, int minCy, int maxCx, int maxCy) {
+        if (snapshot) return;
+        pending.clear();
+        int limit = maxResident / 2;
+        for (int cy = minCy; cy <= maxCy && pending.size < limit; cy++)
+            for (int cx = minCx; cx <= maxCx && pending.size < limit; cx++) {
+                long key = key(cx, cy);
+                if (resident.containsKey(key) || pager.contains(key)) continue;
+                WorldChunk chunk = new WorldChunk();
+                chunk.reset(cx, cy);
+                pending.add(chunk);
+            }
+        if (pending.size == 0) return;
+
+        Island.generateChunks(seed, shoreRadius, pending, 0, pending.size);
+        for (int n = 0; n < pending.size; n++) {
+            WorldChunk chunk = pending.get(n);
+            long key = key(chunk.cx, chunk.cy);
+            if (unread.containsKey(key)) {
+                unread.remove(key);
+                readSaved(chunk);
+                loadedFromSave.add(key);
+            }
+            insert(key, chunk);
+            linkNewest(chunk);
+        }
+        pending.clear();
+    }
+
+    private void evictOldest() {
+        for (WorldChunk victim = oldest; victim != null; victim = victim.newer) {
+            long key = key(victim.cx, victim.cy);
+            if (victim.modified) {
+                try {
+                    pager.pageOut(key, victim);
+                } catch (IOException e) {
+                    // keep it on the heap rather than lose the edits, try the next one
+                    System.out.println("[ChunkStore] Could not page out chunk: " + e.getMessage());
+                    continue;
+                }
+            }
+            unlink(victim);
+            resident.remove(key);
+            if (victim == last) {
+                last = null;
+                lastCx = lastCy = Integer.MIN_VALUE;
+            }
+            return;
+        }
+    }
+
+    private void linkNewest(WorldChunk chunk) {
+        chunk.older = newest;
+        chunk.newer = null;
+        if (newest != null) newest.newer = chunk;
+        newest = chunk;
+        if (oldest == null) oldest = chunk;
+    }
+
+    private void unlink(WorldChunk chunk) {
+        if (chunk.newer != null) chunk.newer.older = chunk.older;
+        else newest = chunk.older;
+        if (chunk.older != null) chunk.older.newer = chunk.newer;
+        else oldest = chunk.newer;
+        chunk.newer = chunk.older = null;
+    }
+
+    public int getResidentCount() {
+        return resident.size;
+    }
+
+    public int getPagedCount() {
+        return snapshot ? pagedIndex.size : pager.size();
+    }
+
+    // --------------------------------------------------------------------------
+    // SAVED REGIONS
+    // --------------------------------------------------------------------------
+
+    /**
+     * Reads the chunks still missing from {@code reader} on demand. The store
+     * takes ownership and closes it in {@link #dispose}; call
+     * {@link #addSavedRegion} for each region the save holds.
+     */
+    public void attachSave(WorldSave.Reader reader) {
+        closeSave();
+        save = reader;
+    }
+
+    /** Marks chunk (cx, cy) as stored in the attached save, read now if it is already in use. */
+    public void addSavedRegion(int cx, int cy) {
+        long key = key(cx, cy);
+        WorldChunk chunk = resident.get(key);
+        if (chunk == null && pager.contains(key)) chunk = get(cx, cy);
+        if (chunk != null) {
+            readSaved(chunk);
+            loadedFromSave.add(key);
+        } else {
+            unread.put(key, (byte) 1);
+        }
+    }
+
+    /** Calls {@code visitor} for each chunk read from the save since the last call, then forgets them. */
+    public void drainLoadedFromSave(Visitor visitor) {
+        if (loadedFromSave.size == 0) return;
+        for (int k = 0; k < loadedFromSave.size; k++) {
+            long key = loadedFromSave.get(k);
+            visitor.visit(get(LongByteMap.unpackX(key), LongByteMap.unpackY(key)));
+        }
+        loadedFromSave.clear();
+    }
+
+    private void closeSave() {
+        unread.clear();
+        loadedFromSave.clear();
+        if (save == null) return;
+        try {
+            save.close();
+        } catch (IOException e) {
+            System.out.println("[ChunkStore] Could not close world save: " + e.getMessage());
+        }
+        save = null;
+    }
+
+    // --------------------------------------------------------------------------
+    // MODIFIED CHUNKS (saving, regrow timers)
+    // --------------------------------------------------------------------------
+
+    /** Keys of every modified chunk, resident, paged out or still unread in the save. */
+    public void modifiedKeys(LongArray out) {
+        out.clear();
+        for (LongMap.Entry<WorldChunk> e : resident.entries()) {
+            if (e.value.modified) out.add(e.key);
+        }
+        for (int slot = unread.nextSlot(0); slot >= 0; slot = unread.nextSlot(slot + 1)) {
+            out.add(unread.keyAt(slot));
+        }
+        if (snapshot) {
+            LongMap.Keys paged = pagedIndex.keys();
+            while (paged.hasNext) out.add(paged.next());
+        } else {
+            pager.addKeys(out);
+        }
+    }
+
+    /**
+     * A modified chunk by key without making it resident: the resident chunk
+     * itself, or a paged or unread one read into {@code scratch}. Null if it
+     * isn't modified.
+     */
+    public WorldChunk peekModified(long key, WorldChunk scratch) {
+        WorldChunk chunk = resident.get(key);
+        if (chunk != null) return chunk.modified ? chunk : null;
+
+        if (unread.containsKey(key)) {
+            scratch.reset(LongByteMap.unpackX(key), LongByteMap.unpackY(key));
+            Island.generateChunk(seed, shoreRadius, scratch);
+            readSaved(scratch);
+            return scratch;
+        }
+
+        int slot;
+        if (snapshot) {
+            Integer paged = pagedIndex.get(key);
+            slot = paged == null ? -1 : paged;
+        } else {
+            slot = pager.slotOf(key);
+        }
+        if (slot < 0) return null;
+
+        if (readBuffer == null) readBuffer = ByteBuffer.allocate(WorldChunk.BYTES);
+        pager.read(slot, scratch, readBuffer);
+        scratch.cx = LongByteMap.unpackX(key);
+        scratch.cy = LongByteMap.unpackY(key);
+        return scratch;
+    }
+
+    /**
+     * Calls {@code visitor} for every modified chunk that has been loaded; paged
+     * ones are read into a scratch chunk. Regions still unread in the save are
+     * skipped, they show up in {@link #drainLoadedFromSave} once touched.
+     */
+    public void forEachModified(Visitor visitor) {
+        LongArray keys = new LongArray();
+        modifiedKeys(keys);
+        WorldChunk scratch = new WorldChunk();
+        for (int k = 0; k < keys.size; k++) {
+            if (unread.containsKey(keys.get(k))) continue;
+            WorldChunk chunk = peekModified(keys.get(k), scratch);
+            if (chunk != null) visitor.visit(chunk);
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // SNAPSHOTS
+    // --------------------------------------------------------------------------
+
+    /**
+     * Turns this store into a snapshot of {@code src}: copies its modified
+     * resident chunks (reusing this store's chunk objects) and pins its paged
+     * ones. Call {@link #releaseSnapshot} when done reading.
+     */
+    public void copyFrom(ChunkStore src) {
+        releaseSnapshot();
+        for (LongMap.Entry<WorldChunk> e : resident.entries()) spare.add(e.value);
+        resident.clear();
+        newest = oldest = last = null;
+        lastCx = lastCy = Integer.MIN_VALUE;
+
+        for (LongMap.Entry<WorldChunk> e : src.resident.entries()) {
+            if (!e.value.modified) continue;
+            WorldChunk copy = spare.size > 0 ? spare.pop() : new WorldChunk();
+            copy.copyFrom(e.value);
+            copy.newer = copy.older = null;
+            resident.put(e.key, copy);
+        }
+
+        snapshot = true;
+        shoreRadius = src.shoreRadius;
+        pager = src.pager;
+        pager.pin();
+        pager.copyIndex(pagedIndex);
+
+        // unread regions are read from the source's save when written
+        save = src.save;
+        unread.copyFrom(src.unread);
+    }
+
+    /** Lets the source reuse the page slots this snapshot was reading. */
+    public void releaseSnapshot() {
+        if (!snapshot) return;
+        pager.unpin();
+        pagedIndex.clear();
+        save = null;
+        unread.clear();
+        snapshot = false;
+        pager = ownPager;
+    }
+
+    public void dispose() {
+        if (snapshot) return;
+        pager.close();
+        closeSave();
+    }
+}
@@ -1,11 +1,9 @@
 package io.github.example_name;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 public class Client {
 
@@ -13,14 +11,21 @@ public class Client {
         void onMessage(String message);
     }
 
+    /** Game (non-chat) frames from the host, called on the listen thread. */
+    public interface FrameListener {
+        void onFrame(int type, ByteBuffer payload) throws IOException;
+    }
+
     private final String host;
     private final int port;
     private final String username;
     private final MessageListener listener;
+    private volatile FrameListener frameListener;
 
-    private Socket socket;
-    private BufferedReader in;
-    private PrintWriter out;
+    private SocketChannel channel;
+    private final Protocol.Decoder decoder = new Protocol.Decoder();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(4096);
+    private final Protocol.FrameHandler handler = this::onFrame;
     private Thread listenThread;
     private volatile boolean connected = false;
 
@@ -34,15 +39,16 @@ public class Client {
     public boolean connect() {
         System.out.println("Client: attempting connect to " + host + ":" + port);
         try {
-            socket = new Socket();
-            socket.connect(new InetSocketAddress(host, port), 3000); // 3s timeout
+            channel = SocketChannel.open();
+            channel.socket().connect(new InetSocketAddress(host, port), 3000); // 3s timeout
+            channel.socket().setTcpNoDelay(true);
             System.out.println("Client: socket connected");
 
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in  = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-
-            out.println(username);
             connected = true;
+            ByteBuffer hello = Protocol.POOL.acquire();
+            Protocol.writeHello(hello, username);
+            hello.flip();
+            sendFrame(hello);
             startListening();
 
             System.out.println("Client connected to " + host + ":" + port);
@@ -55,18 +61,22 @@ public class Client {
         }
     }
 
+    public void setFrameListener(FrameListener frameListener) {
+        this.frameListener = frameListener;
+    }
+
     private void startListening() {
         listenThread = new Thread(() -> {
             try {
-                String line;
-                while (connected && (line = in.readLine()) != null) {
-                    if (listener != null) {
-                        listener.onMessage(line);
-                    }
+                while (connected) {
+                    readBuffer.clear();
+                    if (channel.read(readBuffer) < 0) break;
+                    readBuffer.flip();
+                    decoder.feed(readBuffer, handler);
                 }
-            } catch (IOException e) {
+            } catch (IOException | RuntimeException e) {
                 if (connected) {
-                    System.err.println("Client listen error: " + e.getMessage());
+                    System.err.println("Client listen error: " + e);
                 }
             } finally {
                 close();
@@ -77,15 +87,47 @@ public class Client {
         listenThread.start();
     }
 
+    private void onFrame(int type, ByteBuffer payload) throws IOException {
+        if (type == Protocol.CHAT) {
+            if (listener != null) {
+                listener.onMessage(Protocol.getString(payload));
+            }
+        } else {
+            FrameListener fl = frameListener;
+            if (fl != null) fl.onFrame(type, payload);
+        }
+    }
+
     public void sendChatMessage(String text) {
-        if (!connected || out == null || text == null || text.isEmpty()) return;
+        if (!connected || text == null || text.isEmpty()) return;
         sendRaw(username + ": " + text);
     }
 
+    /** Sends {@code line} to the host as a chat message, without the username prefix. */
     public void sendRaw(String line) {
-        if (!connected || out == null || line == null) return;
-        out.println(line);
-        out.flush();
+        if (!connected || line == null) return;
+        ByteBuffer frame = Protocol.POOL.acquire();
+        Protocol.writeChat(frame, line);
+        frame.flip();
+        sendFrame(frame);
+    }
+
+    /**
+     * Sends an encoded frame (flipped, taken from {@link Protocol#POOL}) and
+     * returns the buffer to the pool.
+     */
+    public void sendFrame(ByteBuffer frame) {
+        try {
+            synchronized (this) {
+                if (!connected || channel == null) return;
+                while (frame.hasRemaining()) channel.write(frame);
+            }
+        } catch (IOException e) {
+            System.out.println("Client send failed: " + e.getMessage());
+            close();
+        } finally {
+            Protocol.POOL.release(frame);
+        }
     }
 
     public void disconnect() {
@@ -95,14 +137,7 @@ public class Client {
     private void close() {
         connected = false;
 
-        try { if (in != null) in.close(); } catch (IOException ignored) {}
-        if (out != null) out.close();
-
-        try { if (socket != null && !socket.isClosed()) socket.close(); } catch (IOException ignored) {}
-
-        in = null;
-        out = null;
-        socket = null;
+        try { if (channel != null && channel.isOpen()) channel.close(); } catch (IOException ignored) {}
 
         System.out.println("Client disconnected.");
     }
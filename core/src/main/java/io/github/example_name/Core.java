@@ -5,41 +5,48 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
-import com.badlogic.gdx.graphics.GL20;
 
 
 public class Core extends ApplicationAdapter {
-    private ShapeRenderer shapeRenderer;
     private OrthographicCamera camera;
     private SpriteBatch batch;
     private BitmapFont font;
-    private Random random = new Random();
     private boolean deathSoundPlayed = false;
-    private Texture grassTexture, sandTexture;
+    private WorldAtlas atlas;       // every world/item/fence sprite lives on one page
+    private RenderStats renderStats;
+    private boolean showRenderStats = false;
+    private final FrameProfiler profiler = new FrameProfiler();   // per-phase timings, F4 overlay, F5 CSV
+    private boolean showProfiler = false;
+    private int lastRenderCalls;
+    private int profilerTextVersion = -1;
+    private final String[] profilerText = new String[FrameProfiler.PHASES + 2];
+
+    // screen-space projection, labels and number text shared by every HUD panel
+    private HudContext hud;
+    private final HudContext.NumberText coinText = new HudContext.NumberText();
     private Walking walking;
-    private Texture wheatTexture, carrotTexture, potatoTexture, blueberryTexture;
-    private Texture grass1Texture, grass2Texture, grass3Texture;
-    private Texture flower1Texture, flower2Texture, flower3Texture;
-    private Texture dirtTexture;
-    private Texture wheatSeedTexture, carrotSeedTexture, potatoSeedTexture, blueberrySeedTexture, pathTexture, fenceTexture;
-    private Texture coinTexture;
-    private Texture hoeTexture;     // NEW
-    private Texture farmerNpcTexture;
-    private Texture[] fenceTextures; // 16 textures for each connection
+    private TextureRegion wheatTexture, carrotTexture, potatoTexture, blueberryTexture;
+    private TextureRegion wheatSeedTexture, carrotSeedTexture, potatoSeedTexture, blueberrySeedTexture, pathTexture, fenceTexture;
+    private TextureRegion coinTexture;
+    private TextureRegion hoeTexture;
+    private TextureRegion farmerNpcTexture;
+    private TextureRegion[] fenceTextures; // 16 regions for each connection
+    private TextureRegion[] cropTextures;  // indexed by CropType ordinal
     private Chat chat;
     private TiledMap oceanMap;
     private OrthogonalTiledMapRenderer oceanRenderer;
@@ -57,17 +64,18 @@ public class Core extends ApplicationAdapter {
     private static final float HEALTH_STARVE_DRAIN_PER_SECOND = 2.0f; // health lost per second at 0 hunger
     private static final float HEALTH_REGEN_PER_SECOND = 1.5f;      // health gained per second at full hunger
 
-    private final int[][] ISLAND_MAP = Island.DATA;
     private final int GRID_HEIGHT = Island.HEIGHT;
     private final int GRID_WIDTH = Island.WIDTH;
 
     private float playerX, playerY;
+    private float prevPlayerX, prevPlayerY;   // position at the previous tick, for render interpolation
+    private final FixedStep simulation = new FixedStep(FixedStep.DEFAULT_RATE);
     private final int TILE_SIZE = 32;
     private float playerWidth, playerHeight;
     private Sound sound;
-    private TileState[][] farm;
-    private Crop[][] crops;
-    private float[][] regrowTimers;
+    private WorldState world;         // seeded chunks (terrain, farm, regrow timers) and sparse structures
+    private WorldSimulation worldSim; // clock, regrowth and hosting, shared with the dedicated server
+    private GameClock clock;          // crop growth and regrowth run off this (owned by worldSim)
 
     private int selectedSlot = 0;
 
@@ -76,6 +84,7 @@ public class Core extends ApplicationAdapter {
     private final int TOTAL_SLOTS = HOTBAR_SLOTS + EXTRA_SLOTS;
     private final int[] inventory = new int[TOTAL_SLOTS];
     private final String[] inventoryItems = new String[TOTAL_SLOTS];
+    private final HudContext.NumberText[] slotCountText = new HudContext.NumberText[TOTAL_SLOTS];
 
     private float spawnX, spawnY;
     private boolean shopOpen = false;
@@ -83,112 +92,110 @@ public class Core extends ApplicationAdapter {
 
     private Host host;
     private Client client;
-    private FenceAndPath fenceAndPath;
 
-    enum TileState { EMPTY, TILLED }
-    enum CropType { WHEAT, CARROT, POTATO, BLUEBERRY }
+    // client: applies the host's world deltas (hosting is done by worldSim, see setNetwork)
+    private final WorldReplicator.CellListener replicatedCell = this::onCellReplicated;
 
-    static class Crop {
-        float growTime;
-        CropType type;
-        boolean fullyGrown;
+    // other players, and how often our own position goes out
+    private final RemotePlayers remotePlayers = new RemotePlayers();
+    private float positionTimer = 0f;
+    private float lastSentX = Float.NaN, lastSentY = Float.NaN;
+    private int lastSentDirection = -1;
+    private static final float POSITION_HEARTBEAT = 1f;   // resend at least this often when idle
+    private float positionHeartbeat = 0f;
 
-        Crop(CropType type) {
-            this.type = type;
-            this.growTime = 0f;
-            this.fullyGrown = false;
-        }
+    private FenceAndPath fenceAndPath;
+    private final VisibleRange visible = new VisibleRange();
+    private TerrainCache terrainCache;
 
-        void update(float delta) {
-            growTime += delta;
-            if (growTime >= 20f) fullyGrown = true;
-        }
+    private static final CropType[] CROP_TYPES = CropType.values();
 
-        float getGrowthPercent() { return Math.min(growTime / 20f, 1f); }
-        float getSize() { return 0.1f + 0.8f * getGrowthPercent(); }
+    private static float cropSize(float growth) {
+        return 0.1f + 0.8f * growth;
     }
+
     @Override
     public void create() {
+        for (int i = 0; i < TOTAL_SLOTS; i++) slotCountText[i] = new HudContext.NumberText();
         camera = new OrthographicCamera(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         camera.position.set(Gdx.graphics.getWidth() / 2f, Gdx.graphics.getHeight() / 2f, 0);
         camera.update();
-        font = new BitmapFont();
         chat = new Chat();
-        shapeRenderer = new ShapeRenderer();
         batch = new SpriteBatch();
-        font = new BitmapFont();
-        ui = new UI();
-
-        // --- Load textures ---
-        hoeTexture = new Texture(Gdx.files.internal("hoe.png"));   // NEW
-        grass1Texture = new Texture(Gdx.files.internal("grass1.png"));
-        grass2Texture = new Texture(Gdx.files.internal("grass2.png"));
-        grass3Texture = new Texture(Gdx.files.internal("grass3.png"));
-        flower1Texture = new Texture(Gdx.files.internal("flower1.png"));
-        flower2Texture = new Texture(Gdx.files.internal("flower2.png"));
-        flower3Texture = new Texture(Gdx.files.internal("flower3.png"));
-        grassTexture = new Texture(Gdx.files.internal("grass.png"));
-        sandTexture = new Texture(Gdx.files.internal("sand.png"));
-        wheatTexture = new Texture(Gdx.files.internal("wheat.png"));
-        carrotTexture = new Texture(Gdx.files.internal("carrot.png"));
-        potatoTexture = new Texture(Gdx.files.internal("potato.png"));
-        blueberryTexture = new Texture(Gdx.files.internal("blueberry.png"));
-        dirtTexture = new Texture(Gdx.files.internal("drytilleddirt.png"));
-        wheatSeedTexture = new Texture(Gdx.files.internal("wheatseed.png"));
-        carrotSeedTexture = new Texture(Gdx.files.internal("carrotseed.png"));
-        potatoSeedTexture = new Texture(Gdx.files.internal("potatoseed.png"));
-        blueberrySeedTexture = new Texture(Gdx.files.internal("blueberryseed.png"));
-        pathTexture = new Texture(Gdx.files.internal("Stone Path.png"));
-        fenceTexture = new Texture(Gdx.files.internal("fence_0.png"));
-        fenceTextures = new Texture[16];
-        for (int i = 0; i < 16; i++) {
-            fenceTextures[i] = new Texture(Gdx.files.internal("fence_" + i + ".png"));
-        }
-
-        fenceAndPath = new FenceAndPath(GRID_WIDTH, GRID_HEIGHT, TILE_SIZE, pathTexture, fenceTextures);
 
-        coinTexture = new Texture(Gdx.files.internal("8bitCoinPNG.png"));
-        farmerNpcTexture = new Texture(Gdx.files.internal("farmer.png"));
+        // --- Load sprites (packed into a single atlas on first launch) ---
+        atlas = new WorldAtlas();
+        font = atlas.newFont();
+        hud = new HudContext(atlas.getWhite());
+        ui = new UI(atlas.get("options"));
+        renderStats = new RenderStats();
+        hoeTexture = atlas.get("hoe");
+        wheatTexture = atlas.get("wheat");
+        carrotTexture = atlas.get("carrot");
+        potatoTexture = atlas.get("potato");
+        blueberryTexture = atlas.get("blueberry");
+        cropTextures = new TextureRegion[] { wheatTexture, carrotTexture, potatoTexture, blueberryTexture };
+        wheatSeedTexture = atlas.get("wheatseed");
+        carrotSeedTexture = atlas.get("carrotseed");
+        potatoSeedTexture = atlas.get("potatoseed");
+        blueberrySeedTexture = atlas.get("blueberryseed");
+        pathTexture = atlas.get("path");
+        fenceTextures = atlas.getFences();
+        fenceTexture = fenceTextures[0];
+
+        world = new WorldState(GRID_WIDTH, GRID_HEIGHT);
+        world.prefetch(0, 0, GRID_WIDTH - 1, GRID_HEIGHT - 1);   // the start island, generated across all cores
+        fenceAndPath = new FenceAndPath(world, TILE_SIZE, pathTexture, fenceTextures);
+        worldSim = new WorldSimulation(world, TILE_SIZE);
+        clock = worldSim.getClock();
+
+        coinTexture = atlas.get("coin");
+        farmerNpcTexture = atlas.get("farmer");
 
         oceanMap = new TmxMapLoader().load("ocean.tmx");
         oceanRenderer = new OrthogonalTiledMapRenderer(oceanMap, TILE_SIZE / 8f);
         sound = new Sound();
-        walking = new Walking();
+        walking = new Walking(atlas);
 
         float PLAYER_SCALE = 2.2f;
         playerWidth = TILE_SIZE * PLAYER_SCALE;
         playerHeight = TILE_SIZE * PLAYER_SCALE;
 
-        farm = new TileState[GRID_WIDTH][GRID_HEIGHT];
-        crops = new Crop[GRID_WIDTH][GRID_HEIGHT];
-        regrowTimers = new float[GRID_WIDTH][GRID_HEIGHT];
-
-        for (int x = 0; x < GRID_WIDTH; x++)
-            for (int y = 0; y < GRID_HEIGHT; y++) {
-                farm[x][y] = TileState.EMPTY;
-                regrowTimers[x][y] = 0f;
-            }
-
-        Arrays.fill(inventory, 0);
-
-        CurrencyManager.load();
-        CurrencyManager.setCurrency(0);
-        CurrencyManager.save();
+        // --- Restore the saved world before the terrain chunks are built ---
+        boolean loaded = loadWorld();
+        if (loaded) fenceAndPath.rebuild();
+        autoSaver = new AutoSaver(Gdx.files.local(SAVE_FILE).file(), GRID_WIDTH, GRID_HEIGHT, world.seed, TOTAL_SLOTS);
+
+        terrainCache = new TerrainCache(world, TILE_SIZE,
+            atlas.get("grass"), atlas.get("sand"), atlas.get("dirt"),
+            new TextureRegion[] { atlas.get("grass1"), atlas.get("grass2"), atlas.get("grass3") },
+            new TextureRegion[] { atlas.get("flower1"), atlas.get("flower2"), atlas.get("flower3") });
+        worldSim.setCellListener(this::onCellChanged);
+
+        if (!loaded) {
+            Arrays.fill(inventory, 0);
+            CurrencyManager.load();
+            CurrencyManager.setCurrency(0);
+            CurrencyManager.save();
+        }
 
         for (int y = GRID_HEIGHT / 2 - 5; y < GRID_HEIGHT / 2 + 5; y++) {
             for (int x = GRID_WIDTH / 2 - 5; x < GRID_WIDTH / 2 + 5; x++) {
-                if (ISLAND_MAP[y][x] == 1) {
-                    playerX = x * TILE_SIZE;
-                    playerY = y * TILE_SIZE;
-
+                if (world.terrain(world.index(x, y)) == 1) {
                     // ✅ store spawn for respawn
-                    spawnX = playerX;
-                    spawnY = playerY;
+                    spawnX = x * TILE_SIZE;
+                    spawnY = y * TILE_SIZE;
+                    if (!loaded) {
+                        playerX = spawnX;
+                        playerY = spawnY;
+                    }
 
                     break;
                 }
             }
         }
+        prevPlayerX = playerX;
+        prevPlayerY = playerY;
 
 
 
@@ -237,6 +244,124 @@ public class Core extends ApplicationAdapter {
         if (chat != null && client != null) {
             chat.setClient(client);
         }
+
+        if (host != null) {
+            // The host's world is the authoritative one: record every change and stream it out
+            worldSim.attachHost(host, new WorldSimulation.PlayerListener() {
+                @Override
+                public void onPlayerMoved(int playerId, float x, float y, int direction) {
+                    remotePlayers.onPosition(playerId, x, y, direction);
+                }
+
+                @Override
+                public void onPlayerLeft(int playerId) {
+                    remotePlayers.remove(playerId);
+                }
+            });
+        }
+        if (client != null) {
+            worldSim.setRegrowEnabled(false);   // the host runs regrowth and replicates the result
+            client.setFrameListener(this::onClientFrame);
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // WORLD REPLICATION
+    // --------------------------------------------------------------------------
+
+    // network thread: deltas are copied out of the decoder and applied on the GL thread
+    private void onClientFrame(int type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case Protocol.WORLD_DELTA: {
+                ByteBuffer copy = Protocol.POOL.acquire();
+                copy.put(payload).flip();
+                Gdx.app.postRunnable(() -> applyWorldDelta(copy));
+                break;
+            }
+            case Protocol.PLAYER_POSITION: {
+                int id = Protocol.getVarInt(payload);
+                float x = Protocol.getFloat(payload), y = Protocol.getFloat(payload);
+                int dir = Protocol.getVarInt(payload);
+                Gdx.app.postRunnable(() -> remotePlayers.onPosition(id, x, y, dir));
+                break;
+            }
+            case Protocol.PLAYER_LEFT: {
+                int id = Protocol.getVarInt(payload);
+                Gdx.app.postRunnable(() -> remotePlayers.remove(id));
+                break;
+            }
+        }
+    }
+
+    /** Sends our position at RemotePlayers.SEND_RATE, and only when it changed (plus a slow heartbeat). */
+    private void sendPosition(float delta) {
+        if (host == null && client == null) return;
+
+        positionTimer += delta;
+        positionHeartbeat += delta;
+        if (positionTimer < RemotePlayers.SEND_INTERVAL) return;
+        positionTimer = 0f;
+
+        int dir = walking.getDirection();
+        boolean changed = playerX != lastSentX || playerY != lastSentY || dir != lastSentDirection;
+        if (!changed && positionHeartbeat < POSITION_HEARTBEAT) return;
+        positionHeartbeat = 0f;
+        lastSentX = playerX;
+        lastSentY = playerY;
+        lastSentDirection = dir;
+
+        if (host != null) {
+            worldSim.relayPosition(WorldSimulation.HOST_PLAYER_ID, playerX, playerY, dir);
+        } else {
+            ByteBuffer frame = Protocol.POOL.acquire();
+            Protocol.writePlayerPosition(frame, Protocol.SELF_PLAYER_ID, playerX, playerY, dir);   // the host fills in who we are
+            frame.flip();
+            client.sendFrame(frame);
+        }
+    }
+
+    private void applyWorldDelta(ByteBuffer delta) {
+        try {
+            int ack = WorldReplicator.applyDelta(delta, world, clock, replicatedCell);
+            if (ack >= 0 && client != null) {
+                ByteBuffer frame = Protocol.POOL.acquire();
+                Protocol.writeDeltaAck(frame, ack);
+                frame.flip();
+                client.sendFrame(frame);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Bad world delta from host: " + e.getMessage());
+        } finally {
+            Protocol.POOL.release(delta);
+        }
+    }
+
+    private void onCellReplicated(int cell) {
+        terrainCache.markDirty(world.x(cell), world.y(cell));
+    }
+
+    // host-side changes made by worldSim (regrowth, validated client requests)
+    private void onCellChanged(int cell) {
+        terrainCache.markDirty(world.x(cell), world.y(cell));
+        fenceAndPath.onCellChanged(cell);
+    }
+
+    // Client side: local edits are applied right away and also sent to the host,
+    // whose next delta confirms or corrects them.
+    private void requestTile(int x, int y, int layer, int value) {
+        if (client == null) return;
+        ByteBuffer frame = Protocol.POOL.acquire();
+        Protocol.writeTileChange(frame, x, y, layer, value);
+        frame.flip();
+        client.sendFrame(frame);
+    }
+
+    private void requestCrop(int x, int y, int event, int crop) {
+        if (client == null) return;
+        ByteBuffer frame = Protocol.POOL.acquire();
+        Protocol.writeCropEvent(frame, x, y, event, crop);
+        frame.flip();
+        client.sendFrame(frame);
     }
 
     public void receiveNetworkMessage(String message) {
@@ -244,7 +369,7 @@ public class Core extends ApplicationAdapter {
             chat.addMessage(message);   // just display it
         }
     }
-    private Texture getTextureForItem(String item) {
+    private TextureRegion getTextureForItem(String item) {
         if (item == null) return null;
 
         switch (item) {
@@ -267,87 +392,44 @@ public class Core extends ApplicationAdapter {
     @Override
     public void render() {
         float delta = Gdx.graphics.getDeltaTime();
+        renderStats.beginFrame();
+        profiler.beginFrame();
 
         // Update chat input
+        long t = profiler.start();
         chat.update();
-        updateNeeds(delta);
-        camera.position.set(playerX + TILE_SIZE / 2f, playerY + TILE_SIZE / 2f, 0);
-        camera.update();
-
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        batch.setProjectionMatrix(camera.combined);
-        ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
-
-        float PLAYER_SPEED = 150f;
-        float nextX = playerX, nextY = playerY;
-
-// Movement flags for animation
-        boolean movingLeft  = false;
-        boolean movingRight = false;
-        boolean movingUp    = false;
-        boolean movingDown  = false;
-
-// Only move when chat is not active AND player is alive
-        if (!chat.isActive() && health > 0f) {
-            if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-                nextX -= PLAYER_SPEED * delta;
-                movingLeft = true;
-            }
-            if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-                nextX += PLAYER_SPEED * delta;
-                movingRight = true;
-            }
-            if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-                nextY += PLAYER_SPEED * delta;
-                movingUp = true;
-            }
-            if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-                nextY -= PLAYER_SPEED * delta;
-                movingDown = true;
-            }
-            Vector3 mouse = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(mouse);
-            int mx = (int)(mouse.x / TILE_SIZE);
-            int my = (int)(mouse.y / TILE_SIZE);
-
-            int px = (int)(playerX / TILE_SIZE);
-            int py = (int)(playerY / TILE_SIZE);
-
-            int dx = Math.abs(px - mx);
-            int dy = Math.abs(py - my);
-            int radius = 3;
-
+        profiler.stop(FrameProfiler.CHAT, t);
 
+        // --- Simulation runs in fixed ticks, independent of the frame rate ---
+        int steps = simulation.advance(delta);
+        for (int s = 0; s < steps; s++) {
+            tick(simulation.step);
         }
 
-        int tx = (int) (nextX / TILE_SIZE);
-        int ty = (int) (nextY / TILE_SIZE);
+        // draw the player between the last two ticks so movement stays smooth at any refresh rate
+        float alpha = simulation.alpha();
+        float drawX = prevPlayerX + (playerX - prevPlayerX) * alpha;
+        float drawY = prevPlayerY + (playerY - prevPlayerY) * alpha;
 
-        if (inBounds(tx, ty) && ISLAND_MAP[ty][tx] != 0
-            && fenceAndPath.getTile(tx, ty) != FenceAndPath.Tile.FENCE) {
-            playerX = nextX;
-            playerY = nextY;
-        }
+        camera.position.set(drawX + TILE_SIZE / 2f, drawY + TILE_SIZE / 2f, 0);
+        camera.update();
+
+        batch.setProjectionMatrix(camera.combined);
+        ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
 
         if (sound != null) {
             sound.setMusicMuted(ui.isMusicMuted());  // you’d add setMusicMuted(...) in Sound
         }
 
-        if (walking != null) {
-            walking.update(delta, movingLeft, movingRight, movingUp, movingDown);
-        }
-
-        boolean moving = movingLeft || movingRight || movingUp || movingDown;
-        sound.update(delta, moving);
-
-
+        remotePlayers.update(delta);
 
+        t = profiler.start();
         oceanRenderer.setView(camera);
         oceanRenderer.render();
+        profiler.stop(FrameProfiler.OCEAN, t);
 
         if (health > 0f && Gdx.input.justTouched()) {
-            Vector3 mouse = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-            camera.unproject(mouse);
+            Vector3 mouse = hud.unprojectMouse(camera);
             int mx = (int) (mouse.x / TILE_SIZE);
             int my = (int) (mouse.y / TILE_SIZE);
 
@@ -386,111 +468,95 @@ public class Core extends ApplicationAdapter {
             }
         }
 
-        for (int x = 0; x < GRID_WIDTH; x++)
-            for (int y = 0; y < GRID_HEIGHT; y++) {
-                if (crops[x][y] != null) crops[x][y].update(delta);
-                if (regrowTimers[x][y] > 0) {
-                    regrowTimers[x][y] -= delta;
-                    if (regrowTimers[x][y] <= 0) {
-                        double chance = random.nextDouble();
-                        if (chance < 0.1) {
-                            Island.DECOR[y][x] = random.nextInt(3) + 1;
-                            Island.FLIP[y][x] = random.nextBoolean();
-                        } else if (chance < 0.15) {
-                            Island.FLOWER[y][x] = random.nextInt(3) + 1;
-                            Island.FLOWER_FLIP[y][x] = random.nextBoolean();
-                        }
-                    }
-                }
-            }
-
+        // Only walk the tiles the camera can actually see
+        visible.set(camera.position.x, camera.position.y,
+            camera.viewportWidth * camera.zoom, camera.viewportHeight * camera.zoom,
+            TILE_SIZE, VisibleRange.DEFAULT_MARGIN, GRID_WIDTH, GRID_HEIGHT);
+        // chunks about to scroll into view are generated together rather than one by one mid-frame
+        world.prefetch(visible.minX - WorldChunk.SIZE, visible.minY - WorldChunk.SIZE,
+            visible.maxX + WorldChunk.SIZE, visible.maxY + WorldChunk.SIZE);
+
+        // Grass, sand, decor, flowers and tilled dirt come from the pre-baked chunk cache
+        t = profiler.start();
+        terrainCache.render(camera, visible);
+        profiler.stop(FrameProfiler.TERRAIN, t);
+
+        t = profiler.start();
+        float now = clock.now();
         batch.begin();
-        for (int x = 0; x < GRID_WIDTH; x++) {
-            for (int y = 0; y < GRID_HEIGHT; y++) {
-                if (ISLAND_MAP[y][x] == 1) {
-                    batch.draw(grassTexture, x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                    int decor = Island.DECOR[y][x];
-                    if (decor > 0) {
-                        Texture decorTex = decor == 1 ? grass1Texture :
-                            decor == 2 ? grass2Texture : grass3Texture;
-                        boolean flip = Island.FLIP[y][x];
-                        float size = TILE_SIZE * 0.9f;
+        // chunk by chunk, row by row, so the scan walks each chunk's crop arrays in memory order
+        for (int cy = visible.minY >> WorldChunk.SHIFT; cy <= visible.maxY >> WorldChunk.SHIFT; cy++) {
+            for (int cx = visible.minX >> WorldChunk.SHIFT; cx <= visible.maxX >> WorldChunk.SHIFT; cx++) {
+                WorldChunk chunk = world.chunkAt(cx, cy);
+                int x0 = Math.max(visible.minX, cx << WorldChunk.SHIFT);
+                int x1 = Math.min(visible.maxX, (cx << WorldChunk.SHIFT) + WorldChunk.MASK);
+                int y0 = Math.max(visible.minY, cy << WorldChunk.SHIFT);
+                int y1 = Math.min(visible.maxY, (cy << WorldChunk.SHIFT) + WorldChunk.MASK);
+                for (int y = y0; y <= y1; y++) {
+                    for (int x = x0; x <= x1; x++) {
+                        int c = WorldChunk.local(x, y);
+                        int type = chunk.cropType(c);
+                        if (type < 0) continue;
+
+                        float size = cropSize(chunk.cropGrowth(c, now)) * TILE_SIZE;
                         float offset = (TILE_SIZE - size) / 2f;
-                        if (flip)
-                            batch.draw(decorTex, x * TILE_SIZE + offset + size, y * TILE_SIZE + offset, -size, size);
-                        else
-                            batch.draw(decorTex, x * TILE_SIZE + offset, y * TILE_SIZE + offset, size, size);
-                    }
-                    int flower = Island.FLOWER[y][x];
-                    if (flower > 0) {
-                        Texture flowerTex = flower == 1 ? flower1Texture :
-                            flower == 2 ? flower2Texture : flower3Texture;
-                        boolean flip = Island.FLOWER_FLIP[y][x];
-                        float size = TILE_SIZE * 0.9f;
-                        float offset = (TILE_SIZE - size) / 2f;
-                        if (flip)
-                            batch.draw(flowerTex, x * TILE_SIZE + offset + size, y * TILE_SIZE + offset, -size, size);
-                        else
-                            batch.draw(flowerTex, x * TILE_SIZE + offset, y * TILE_SIZE + offset, size, size);
-                    }
-                } else if (ISLAND_MAP[y][x] == 2) {
-                    batch.draw(sandTexture, x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                }
-
-                if (farm[x][y] == TileState.TILLED) {
-                    batch.draw(dirtTexture, x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
-                }
-                Crop c = crops[x][y];
-                if (c != null) {
-                    float size = c.getSize() * TILE_SIZE;
-                    float offset = (TILE_SIZE - size) / 2f;
-
-                    Texture cropTex = null;
-                    switch (c.type) {
-                        case WHEAT:
-                            cropTex = wheatTexture;
-                            break;
-                        case CARROT:
-                            cropTex = carrotTexture;
-                            break;
-                        case POTATO:
-                            cropTex = potatoTexture;
-                            break;
-                        case BLUEBERRY:
-                            cropTex = blueberryTexture;
-                            break;
-                    }
-
-                    if (cropTex != null) {
-                        batch.draw(cropTex, x * TILE_SIZE + offset, y * TILE_SIZE + offset, size, size);
+                        batch.draw(cropTextures[type], x * TILE_SIZE + offset, y * TILE_SIZE + offset, size, size);
                     }
                 }
             }
         }
-        fenceAndPath.render(batch);
+        profiler.stop(FrameProfiler.CROPS, t);
+        t = profiler.start();
+        fenceAndPath.render(batch, visible);
         batch.end();
+        profiler.stop(FrameProfiler.FENCES, t);
+
+        t = profiler.start();
         drawNPCs();
+        profiler.stop(FrameProfiler.NPCS, t);
 
+        t = profiler.start();
         batch.begin();
+        for (RemotePlayers.Avatar a : remotePlayers.all()) {
+            batch.draw(
+                walking.getFrame(a.direction, a.animTime),
+                a.x - (playerWidth - TILE_SIZE) / 2f,
+                a.y - (playerHeight - TILE_SIZE) / 2f,
+                playerWidth,
+                playerHeight
+            );
+        }
         batch.draw(
             walking.getCurrentFrame(),
-            playerX - (playerWidth - TILE_SIZE) / 2f,
-            playerY - (playerHeight - TILE_SIZE) / 2f,
+            drawX - (playerWidth - TILE_SIZE) / 2f,
+            drawY - (playerHeight - TILE_SIZE) / 2f,
             playerWidth,
             playerHeight
         );
         batch.end();
+        profiler.stop(FrameProfiler.PLAYERS, t);
+        renderStats.endWorldPass();
 
 
+        // --- HUD: one screen-space batch pass, back to front ---
+        t = profiler.start();
         handleShopInteraction();
+        hud.begin(batch);
         drawInventory();
         drawCurrencyHUD();
         if (shopOpen) drawShopWindow();
-        chat.draw(shapeRenderer, batch, font);
+        chat.draw(batch, font, hud);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) showRenderStats = !showRenderStats;
+        if (showRenderStats) drawRenderStats();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) showProfiler = !showProfiler;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F5)) dumpProfile();
+        if (showProfiler) drawProfiler();
+        renderStats.setEnabled(showRenderStats || showProfiler);   // GL interception costs every call, keep it off otherwise
 
 ///  Draw health/hunger + death overlay, and check for respawn click
-        boolean respawnClicked = ui.draw(shapeRenderer, batch, font,
+        boolean respawnClicked = ui.draw(batch, font, hud,
             health, maxHealth, hunger, maxHunger);
+        batch.end();
         if (respawnClicked) {
             respawnPlayer();
         }
@@ -499,30 +565,112 @@ public class Core extends ApplicationAdapter {
         if (ui.pollCloseRequested()) {
             Gdx.app.exit();
         }
+        profiler.stop(FrameProfiler.HUD, t);
+        renderStats.endFrame();
+        profiler.endFrame(batch.totalRenderCalls - lastRenderCalls, renderStats.getTextureBindings());
+        lastRenderCalls = batch.totalRenderCalls;
     }
 
 
 
+    /** One fixed simulation step: needs, movement, animation, clocks and network timers. */
+    private void tick(float dt) {
+        prevPlayerX = playerX;
+        prevPlayerY = playerY;
+
+        long t = profiler.start();
+        updateNeeds(dt);
+        profiler.stop(FrameProfiler.NEEDS, t);
+
+        t = profiler.start();
+        float PLAYER_SPEED = 150f;
+        float nextX = playerX, nextY = playerY;
+
+// Movement flags for animation
+        boolean movingLeft  = false;
+        boolean movingRight = false;
+        boolean movingUp    = false;
+        boolean movingDown  = false;
+
+// Only move when chat is not active AND player is alive
+        if (!chat.isActive() && health > 0f) {
+            if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+                nextX -= PLAYER_SPEED * dt;
+                movingLeft = true;
+            }
+            if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+                nextX += PLAYER_SPEED * dt;
+                movingRight = true;
+            }
+            if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
+                nextY += PLAYER_SPEED * dt;
+                movingUp = true;
+            }
+            if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
+                nextY -= PLAYER_SPEED * dt;
+                movingDown = true;
+            }
+        }
+
+        int tx = (int) (nextX / TILE_SIZE);
+        int ty = (int) (nextY / TILE_SIZE);
+
+        if (inBounds(tx, ty) && world.terrain(world.index(tx, ty)) != 0
+            && fenceAndPath.getTile(tx, ty) != FenceAndPath.Tile.FENCE) {
+            playerX = nextX;
+            playerY = nextY;
+        }
+
+        if (walking != null) {
+            walking.update(dt, movingLeft, movingRight, movingUp, movingDown);
+        }
+
+        boolean moving = movingLeft || movingRight || movingUp || movingDown;
+        sound.update(dt, moving);
+        profiler.stop(FrameProfiler.MOVEMENT, t);
+
+        sendPosition(dt);
+
+        // clock, decor regrowth, queued client requests and world deltas
+        t = profiler.start();
+        worldSim.tick(dt);
+        profiler.stop(FrameProfiler.SIMULATION, t);
+
+        autosaveTimer += dt;
+        if (autosaveTimer >= AUTOSAVE_INTERVAL) {
+            autosaveTimer = 0f;
+            saveWorld(false);
+        }
+    }
+
     private void handleTileToggle(int x, int y) {
-        if (!inBounds(x, y) || ISLAND_MAP[y][x] != 1) return;
+        if (!inBounds(x, y)) return;
+        int i = world.index(x, y);
+        if (world.terrain(i) != 1) return;
 
         // If there's a crop here, harvest instead of modifying the soil
-        if (crops[x][y] != null) {
+        if (world.hasCrop(i)) {
             handleHarvest(x, y);
             return;
         }
 
         // No crop: toggle tilled state
-        if (farm[x][y] == TileState.EMPTY) {
-            farm[x][y] = TileState.TILLED;
-            Island.DECOR[y][x] = 0;
-            Island.FLOWER[y][x] = 0;
+        if (!world.isTilled(i)) {
+            world.setTilled(i, true);
+            world.clearDecor(i);
+            requestTile(x, y, Protocol.LAYER_TILLED, 1);
         } else {
-            farm[x][y] = TileState.EMPTY;
-            crops[x][y] = null;
-            regrowTimers[x][y] = 60f;
+            world.setTilled(i, false);
+            world.clearCrop(i);
+            startRegrow(x, y);
+            requestTile(x, y, Protocol.LAYER_TILLED, 0);
         }
+        terrainCache.markDirty(x, y);
     }
+    private void startRegrow(int x, int y) {
+        worldSim.startRegrow(world.index(x, y));
+    }
+
     private void respawnPlayer() {
         // Reset stats
         health = maxHealth;
@@ -530,6 +678,8 @@ public class Core extends ApplicationAdapter {
         deathSoundPlayed = false;
         playerX = spawnX;
         playerY = spawnY;
+        prevPlayerX = playerX;
+        prevPlayerY = playerY;
         CurrencyManager.setCurrency(0);
         CurrencyManager.save();
         for (int i = 0; i < TOTAL_SLOTS; i++) {
@@ -569,27 +719,31 @@ public class Core extends ApplicationAdapter {
 
         if (tile == FenceAndPath.Tile.FENCE) {
             fenceAndPath.removeFence(x, y);
+            requestTile(x, y, Protocol.LAYER_STRUCTURE, WorldState.STRUCTURE_NONE);
             if (sound != null) sound.playBreakLand(); // or a dedicated break sound
             return; // stop here, don’t also till/harvest
         }
 
         if (tile == FenceAndPath.Tile.PATH) {
             fenceAndPath.removePath(x, y);
+            requestTile(x, y, Protocol.LAYER_STRUCTURE, WorldState.STRUCTURE_NONE);
             if (sound != null) sound.playBreakLand();
             return;
         }
 
         // Harvest if a crop is grown
-        Crop crop = crops[x][y];
-        if (crop != null && crop.fullyGrown) {
+        int i = world.index(x, y);
+        if (world.isCropRipe(i, clock.now())) {
             handleHarvest(x, y);
             return;
         }
         // If there’s no crop, untill the soil
-        if (farm[x][y] == TileState.TILLED && crops[x][y] == null) {
-            farm[x][y] = TileState.EMPTY;
+        if (world.isTilled(i) && !world.hasCrop(i)) {
+            world.setTilled(i, false);
+            requestTile(x, y, Protocol.LAYER_TILLED, 0);
             if (sound != null) sound.playBreakLand();
-            regrowTimers[x][y] = 60f; // start regrow timer for decor/grass
+            startRegrow(x, y); // start regrow timer for decor/grass
+            terrainCache.markDirty(x, y);
         }
     }
 
@@ -603,9 +757,10 @@ public class Core extends ApplicationAdapter {
         float distY = Math.abs(py - y);
         if (distX > 2 || distY > 2) return;
         String item = inventoryItems[selectedSlot];
+        int i = world.index(x, y);
 
         // --- If there's a fully grown crop, harvest it ---
-        if (crops[x][y] != null) {
+        if (world.hasCrop(i)) {
             handleHarvest(x, y);
             return;
         }
@@ -615,6 +770,7 @@ public class Core extends ApplicationAdapter {
             if ("Fence".equals(item)) {
                 if (canPlaceStructure(x, y)) {
                     fenceAndPath.placeFence(x, y);
+                    requestTile(x, y, Protocol.LAYER_STRUCTURE, WorldState.STRUCTURE_FENCE);
                     if (sound != null) sound.playFence();
                     inventory[selectedSlot]--;
                     if (inventory[selectedSlot] <= 0) inventoryItems[selectedSlot] = null;
@@ -625,6 +781,7 @@ public class Core extends ApplicationAdapter {
             if ("Stone Path".equals(item) || "STONE PATH".equals(item)) {
                 if (canPlaceStructure(x, y)) {
                     fenceAndPath.placePath(x, y);
+                    requestTile(x, y, Protocol.LAYER_STRUCTURE, WorldState.STRUCTURE_PATH);
                     if (sound != null) sound.playPath();
                     inventory[selectedSlot]--;
                     if (inventory[selectedSlot] <= 0) inventoryItems[selectedSlot] = null;
@@ -633,19 +790,20 @@ public class Core extends ApplicationAdapter {
             }
         }
         if ("Hoe".equals(item)) {
-            if (farm[x][y] == TileState.EMPTY &&
+            if (!world.isTilled(i) &&
                 fenceAndPath.getTile(x, y) != FenceAndPath.Tile.FENCE &&
                 fenceAndPath.getTile(x, y) != FenceAndPath.Tile.PATH) {
 
-                farm[x][y] = TileState.TILLED;
-                Island.DECOR[y][x] = 0;
-                Island.FLOWER[y][x] = 0;
+                world.setTilled(i, true);
+                world.clearDecor(i);
+                terrainCache.markDirty(x, y);
+                requestTile(x, y, Protocol.LAYER_TILLED, 1);
                 if (sound != null) sound.playHoeLand();
                 return;  // stop further processing
             }
         }
         // --- If soil is TILLED, try to plant seeds ---
-        if (farm[x][y] == TileState.TILLED && crops[x][y] == null) {
+        if (world.isTilled(i) && !world.hasCrop(i)) {
             item = inventoryItems[selectedSlot]; // re-read
             if (item == null || inventory[selectedSlot] <= 0) return;
             if (fenceAndPath.getTile(x, y) == FenceAndPath.Tile.PATH) return;
@@ -657,7 +815,8 @@ public class Core extends ApplicationAdapter {
             else if ("BLUEBERRY_SEED".equals(item)) type = CropType.BLUEBERRY;
             if (sound != null) sound.playSeed();
             if (type != null) {
-                crops[x][y] = new Crop(type);
+                world.plantCrop(i, type.ordinal(), clock.now());
+                requestCrop(x, y, Protocol.CROP_PLANTED, type.ordinal());
                 inventory[selectedSlot]--;
                 if (inventory[selectedSlot] <= 0)
                     inventoryItems[selectedSlot] = null;
@@ -669,20 +828,17 @@ public class Core extends ApplicationAdapter {
 
     private void handleHarvest(int x, int y) {
         if (!inBounds(x, y)) return;
-        Crop crop = crops[x][y];
-        if (crop != null && crop.fullyGrown) {
-            int slotIndex = -1;
-            for (int i = 0; i < TOTAL_SLOTS; i++)
-                if (inventoryItems[i] == null || inventoryItems[i].equals(crop.type.toString())) {
-                    slotIndex = i; break;
-                }
+        int cell = world.index(x, y);
+        if (world.isCropRipe(cell, clock.now())) {
+            CropType type = CROP_TYPES[world.cropType(cell)];
+            int slotIndex = InventorySlots.firstFree(inventoryItems, type.toString());
             if (slotIndex != -1) {
                 if (inventoryItems[slotIndex] == null)
-                    inventoryItems[slotIndex] = crop.type.toString();
+                    inventoryItems[slotIndex] = type.toString();
                 inventory[slotIndex]++;
             }
             int reward = 0;
-            switch (crop.type) {
+            switch (type) {
                 case WHEAT:
                     reward = 10;
                     break;
@@ -696,7 +852,8 @@ public class Core extends ApplicationAdapter {
                     reward = 100;
                     break;
             }
-            crops[x][y] = null;
+            world.clearCrop(cell);
+            requestCrop(x, y, Protocol.CROP_HARVESTED, type.ordinal());
             if (sound != null) sound.playPickCrop();
         }
     }
@@ -705,7 +862,7 @@ public class Core extends ApplicationAdapter {
     }
     private boolean isWalkable(int x, int y) {
         if (!inBounds(x, y)) return false;
-        if (ISLAND_MAP[y][x] == 0) return false;
+        if (world.terrain(world.index(x, y)) == 0) return false;
         if (fenceAndPath.getTile(x, y) == FenceAndPath.Tile.FENCE) return false;
 
         return true;
@@ -715,35 +872,24 @@ public class Core extends ApplicationAdapter {
         int totalWidth = TOTAL_SLOTS * slotSize + (TOTAL_SLOTS - 1) * spacing;
         int startX = (Gdx.graphics.getWidth() - totalWidth) / 2;
         int y = 20;
-        shapeRenderer.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
 
         for (int i = 0; i < TOTAL_SLOTS; i++) {
 
             int xPos = startX + i * (slotSize + spacing);
             int border = 2;
-            shapeRenderer.setColor(0f, 0f, 0f, 1f);
-            shapeRenderer.rect(xPos - border, y - border,
-                slotSize + border * 2, slotSize + border * 2);
+            hud.rect(batch, xPos - border, y - border,
+                slotSize + border * 2, slotSize + border * 2, 0f, 0f, 0f, 1f);
             float r = (i == selectedSlot) ? 0.7f : 0.5f;
             float g = 0.7f;
             float b = 0.7f;
 
-            shapeRenderer.setColor(r, g, b, 1f);
-            shapeRenderer.rect(xPos, y, slotSize, slotSize);
+            hud.rect(batch, xPos, y, slotSize, slotSize, r, g, b, 1f);
         }
-        shapeRenderer.end();
-        batch.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-
-        batch.begin();
 
         for (int i = 0; i < TOTAL_SLOTS; i++) {
             if (inventory[i] > 0 && inventoryItems[i] != null) {
 
-                Texture tex = getTextureForItem(inventoryItems[i]);
+                TextureRegion tex = getTextureForItem(inventoryItems[i]);
 
                 if (tex != null) {
                     float size = slotSize * 0.9f;
@@ -755,39 +901,25 @@ public class Core extends ApplicationAdapter {
                         size, size);
                 }
 
-                font.draw(batch, String.valueOf(inventory[i]),
+                font.draw(batch, slotCountText[i].get(inventory[i]),
                     startX + i * (slotSize + spacing) + slotSize - 14,
                     y + slotSize - 6);
             }
         }
-        batch.end();
     }
 
     private void drawCurrencyHUD() {
-        shapeRenderer.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-        batch.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-
         int padding = 12;
         int iconSize = 32;
-        String text = String.valueOf(CurrencyManager.getCurrency());
+        String text = coinText.get(CurrencyManager.getCurrency());
         int panelW = 160;
         int panelH = 54;
         int x = 14;
         int y = Gdx.graphics.getHeight() - panelH - 14;
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(0f, 0f, 0f, 0.25f);   // 40% opaque
-        shapeRenderer.rect(x, y, panelW, panelH);
-        shapeRenderer.setColor(1f, 1f, 1f, 0.15f);  // highlight stripe
-        shapeRenderer.rect(x, y + panelH - 4, panelW, 4);
-        shapeRenderer.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        hud.rect(batch, x, y, panelW, panelH, 0f, 0f, 0f, 0.25f);            // 40% opaque
+        hud.rect(batch, x, y + panelH - 4, panelW, 4, 1f, 1f, 1f, 0.15f);    // highlight stripe
 
-        batch.begin();
         batch.draw(coinTexture, x + padding, y + (panelH - iconSize) / 2 - 1, iconSize, iconSize);
         font.getData().setScale(2.0f);
         font.setColor(0, 0, 0, 0.7f);
@@ -795,15 +927,69 @@ public class Core extends ApplicationAdapter {
         font.setColor(Color.WHITE);
         font.draw(batch, text, x + padding + iconSize + 12, y + panelH - 16);
         font.getData().setScale(1.0f);
-        batch.end();
     }
 
 
+    // F3: draw calls / texture binds of the last frame, world pass and total
+    private void drawRenderStats() {
+        font.setColor(Color.YELLOW);
+        font.draw(batch, "world: " + renderStats.getWorldDrawCalls() + " draws, "
+                + renderStats.getWorldTextureBindings() + " binds | frame: "
+                + renderStats.getDrawCalls() + " draws, " + renderStats.getTextureBindings() + " binds, "
+                + renderStats.getShaderSwitches() + " shader switches | atlas pages: " + atlas.getPageCount(),
+            200, Gdx.graphics.getHeight() - 20);
+        font.draw(batch, String.format("autosave: snapshot %.3f ms (max %.3f) | write %.1f ms (max %.1f) | %d saved, %d skipped",
+                autoSaver.getLastSnapshotMs(), autoSaver.getMaxSnapshotMs(),
+                autoSaver.getLastWriteMs(), autoSaver.getMaxWriteMs(),
+                autoSaver.getSaveCount(), autoSaver.getSkipCount()),
+            200, Gdx.graphics.getHeight() - 40);
+        font.setColor(Color.WHITE);
+    }
+
+    // F4: p50/p99 of each render phase over the last FrameProfiler.HISTORY frames
+    private void drawProfiler() {
+        if (profilerTextVersion != profiler.getPercentileVersion()) {
+            profilerTextVersion = profiler.getPercentileVersion();
+            for (int p = 0; p < FrameProfiler.PHASES; p++) {
+                profilerText[p] = String.format("%-10s p50 %6.3f  p99 %6.3f ms", FrameProfiler.phaseName(p),
+                    profiler.p50(p) / 1e6f, profiler.p99(p) / 1e6f);
+            }
+            profilerText[FrameProfiler.PHASES] = String.format("%-10s p50 %6.3f  p99 %6.3f ms", "frame",
+                profiler.p50(FrameProfiler.FRAME) / 1e6f, profiler.p99(FrameProfiler.FRAME) / 1e6f);
+            profilerText[FrameProfiler.PHASES + 1] = String.format(
+                "batch calls p50 %d p99 %d | binds p50 %d p99 %d | GC %d (%d ms) in %d frames",
+                profiler.p50(FrameProfiler.RENDER_CALLS), profiler.p99(FrameProfiler.RENDER_CALLS),
+                profiler.p50(FrameProfiler.TEXTURE_BINDS), profiler.p99(FrameProfiler.TEXTURE_BINDS),
+                profiler.total(FrameProfiler.GC_COUNT), profiler.total(FrameProfiler.GC_MILLIS),
+                profiler.getFrameCount());
+        }
+
+        font.setColor(Color.CYAN);
+        float y = Gdx.graphics.getHeight() - 70;
+        for (String line : profilerText) {
+            if (line == null) continue;
+            font.draw(batch, line, 200, y);
+            y -= 18;
+        }
+        font.setColor(Color.WHITE);
+    }
+
+    private void dumpProfile() {
+        File file = Gdx.files.local("profiles/frames-" + System.currentTimeMillis() + ".csv").file();
+        try {
+            profiler.dump(file);
+            System.out.println("Wrote " + profiler.getFrameCount() + " frames to " + file.getPath());
+        } catch (IOException e) {
+            System.out.println("Failed to write frame profile: " + e.getMessage());
+        }
+    }
+
     private void drawNPCs() {
         List<Island.NPC> npcs = Island.NPCS;
         if (npcs == null || npcs.isEmpty()) return;
         batch.begin();
-        for (Island.NPC npc : npcs) {
+        for (int n = 0; n < npcs.size(); n++) {
+            Island.NPC npc = npcs.get(n);
             if (npc.type == Island.NPCType.FARMER) {
                 float nx = npc.x * TILE_SIZE;
                 float ny = npc.y * TILE_SIZE;
@@ -817,7 +1003,7 @@ public class Core extends ApplicationAdapter {
                     String prompt = "Press E to Trade";
                     font.getData().setScale(1.25f);
                     font.setColor(Color.YELLOW);
-                    GlyphLayout layout = new GlyphLayout(font, prompt);
+                    GlyphLayout layout = hud.layout(font, prompt);
                     float textX = nx + (w - layout.width) / 1.5f;
                     float textY = ny + h + 16;
                     font.draw(batch, layout, textX, textY);
@@ -836,31 +1022,25 @@ public class Core extends ApplicationAdapter {
     }
 
     private boolean hasItem(String name) {
-        for (int i = 0; i < TOTAL_SLOTS; i++) {
-            if (name.equals(inventoryItems[i]) && inventory[i] > 0) {
-                return true;
-            }
-        }
-        return false;
+        return InventorySlots.has(inventoryItems, inventory, name);
     }
 
     private void buyItemExact(String item, int cost) {
         if (CurrencyManager.getCurrency() < cost) return;
 
         // find empty slot
-        for (int i = 0; i < TOTAL_SLOTS; i++) {
-            if (inventoryItems[i] == null) {
-                inventoryItems[i] = item;
-                inventory[i] = 1;
-                CurrencyManager.addCurrency(-cost);
-                return;
-            }
+        int i = InventorySlots.firstEmpty(inventoryItems);
+        if (i != -1) {
+            inventoryItems[i] = item;
+            inventory[i] = 1;
+            CurrencyManager.addCurrency(-cost);
         }
     }
 
     private void handleShopInteraction() {
         if (!shopOpen) {
-            for (Island.NPC npc : Island.NPCS) {
+            for (int n = 0; n < Island.NPCS.size(); n++) {
+                Island.NPC npc = Island.NPCS.get(n);
                 if (npc.type == Island.NPCType.FARMER && isNearPlayer(npc.x, npc.y, 2)) {
                     if (Gdx.input.isKeyJustPressed(Input.Keys.E)) {
                         shopOpen = true;
@@ -946,10 +1126,7 @@ public class Core extends ApplicationAdapter {
 
     private void buySeed(String seed, int cost) {
         if (CurrencyManager.getCurrency() < cost) return;
-        int slot = -1;
-        for (int i = 0; i < TOTAL_SLOTS; i++) {
-            if (inventoryItems[i] == null || inventoryItems[i].equals(seed)) { slot = i; break; }
-        }
+        int slot = InventorySlots.firstFree(inventoryItems, seed);
         if (slot != -1) {
             if (inventoryItems[slot] == null) inventoryItems[slot] = seed;
             inventory[slot]++;
@@ -960,25 +1137,8 @@ public class Core extends ApplicationAdapter {
     private void buyItem(String item, int cost) {
         if (CurrencyManager.getCurrency() < cost) return;
 
-        int slot = -1;
-
-        // Check if the item already exists in inventory
-        for (int i = 0; i < TOTAL_SLOTS; i++) {
-            if (inventoryItems[i] != null && inventoryItems[i].equals(item)) {
-                slot = i;
-                break;
-            }
-        }
-
-        // If it doesn't exist, find an empty slot
-        if (slot == -1) {
-            for (int i = 0; i < TOTAL_SLOTS; i++) {
-                if (inventoryItems[i] == null) {
-                    slot = i;
-                    break;
-                }
-            }
-        }
+        // Stack onto the item if we already have it, otherwise take an empty slot
+        int slot = InventorySlots.stackOrEmpty(inventoryItems, item);
 
         // If there's a slot, add to it
         if (slot != -1) {
@@ -989,38 +1149,19 @@ public class Core extends ApplicationAdapter {
     }
 
     private void drawShopWindow() {
-        shapeRenderer.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-        batch.setProjectionMatrix(new com.badlogic.gdx.math.Matrix4().setToOrtho2D(
-            0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight()));
-
         int w = 420, h = 260;
         int x = (Gdx.graphics.getWidth() - w) / 2;
         int y = (Gdx.graphics.getHeight() - h) / 2;
 
-        // --- Enable blending so transparency works ---
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
-        // Transparent dark overlay (background fade)
-        shapeRenderer.setColor(0f, 0f, 0f, 0.30f); // 30% opaque
-        shapeRenderer.rect(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        // Transparent dark overlay (background fade), 30% opaque
+        hud.rect(batch, 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), 0f, 0f, 0f, 0.30f);
 
         // Shop panel (slightly transparent)
-        shapeRenderer.setColor(0.10f, 0.10f, 0.15f, 0.90f);
-        shapeRenderer.rect(x, y, w, h);
-
-        shapeRenderer.end();
+        hud.rect(batch, x, y, w, h, 0.10f, 0.10f, 0.15f, 0.90f);
 
-        // Turn blending off (optional)
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-
-        batch.begin();
         font.getData().setScale(1.2f);
         font.setColor(Color.WHITE);
-        font.draw(batch, "Farmer's Stand (" + (shopSellTab ? "Sell" : "Buy") + ")", x + 14, y + h - 16);
+        font.draw(batch, shopSellTab ? "Farmer's Stand (Sell)" : "Farmer's Stand (Buy)", x + 14, y + h - 16);
         font.getData().setScale(1.0f);
 
         if (shopSellTab) {
@@ -1044,7 +1185,6 @@ public class Core extends ApplicationAdapter {
         }
 
         font.setColor(Color.WHITE);
-        batch.end();
     }
 
 
@@ -1061,46 +1201,100 @@ public class Core extends ApplicationAdapter {
     }
 
     private boolean canPlaceStructure(int x, int y) {
-        return crops[x][y] == null
-            && farm[x][y] != TileState.TILLED   // <-- prevent placement on tilled land
+        int i = world.index(x, y);
+        return !world.hasCrop(i)
+            && !world.isTilled(i)   // <-- prevent placement on tilled land
             && fenceAndPath.getTile(x, y) == FenceAndPath.Tile.EMPTY;
     }
 
+    // --------------------------------------------------------------------------
+    // SAVE / LOAD
+    // --------------------------------------------------------------------------
+    private static final String SAVE_FILE = "saves/world.sav";
+    private static final float AUTOSAVE_INTERVAL = 60f;   // seconds
+
+    private AutoSaver autoSaver;
+    private final WorldSave.Meta saveMeta = new WorldSave.Meta(TOTAL_SLOTS);
+    private float autosaveTimer = 0f;
+
+    /** Restores the world from the save file. Returns false if there is none (or it can't be read). */
+    private boolean loadWorld() {
+        File file = Gdx.files.local(SAVE_FILE).file();
+        if (!file.exists()) return false;
+
+        long start = System.nanoTime();
+        WorldSave.Reader reader = null;
+        try {
+            reader = new WorldSave.Reader(file);
+            WorldSave.Meta meta = new WorldSave.Meta(TOTAL_SLOTS);
+            worldSim.load(reader, meta);   // clock and structures; the world reads regions as they are touched
+
+            playerX = meta.playerX;
+            playerY = meta.playerY;
+            health = meta.health;
+            hunger = meta.hunger;
+            System.arraycopy(meta.inventory, 0, inventory, 0, TOTAL_SLOTS);
+            System.arraycopy(meta.inventoryItems, 0, inventoryItems, 0, TOTAL_SLOTS);
+            CurrencyManager.setCurrency(meta.currency);
+            CurrencyManager.save();
+        } catch (Exception e) {
+            System.out.println("Failed to load world save: " + e.getMessage());
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                }
+            }
+            File aside = WorldSave.setAside(file);
+            if (aside != null) System.out.println("Kept the old save as " + aside + ", starting a fresh island");
+            return false;
+        }
+        System.out.println("Loaded world in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return true;
+    }
+
+    /**
+     * Snapshots the world and hands it to the autosave thread; the frame never
+     * waits on disk. With {@code flush} (on exit) it waits until the save is written.
+     */
+    private void saveWorld(boolean flush) {
+        // a joined client's world belongs to the host, don't write it over our own save
+        if (autoSaver == null || client != null) return;
+
+        saveMeta.clock = clock.exact();
+        saveMeta.playerX = playerX;
+        saveMeta.playerY = playerY;
+        saveMeta.health = health;
+        saveMeta.hunger = hunger;
+        saveMeta.currency = CurrencyManager.getCurrency();
+        System.arraycopy(inventory, 0, saveMeta.inventory, 0, TOTAL_SLOTS);
+        System.arraycopy(inventoryItems, 0, saveMeta.inventoryItems, 0, TOTAL_SLOTS);
+        if (!flush) {
+            autoSaver.save(world, saveMeta);
+        } else if (!autoSaver.saveNow(world, saveMeta)) {
+            System.out.println("Final world save failed, the last autosave is kept");
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        hud.resize(width, height);
+    }
+
     @Override
     public void dispose() {
         CurrencyManager.save();
+        saveWorld(true);
+        if (autoSaver != null) autoSaver.shutdown();
+        world.dispose();   // after the autosave thread is done reading its pages
 
-        shapeRenderer.dispose();
         batch.dispose();
         font.dispose();
-        if (walking != null) walking.dispose();
-        grassTexture.dispose();
-        sandTexture.dispose();
-        wheatTexture.dispose();
-        carrotTexture.dispose();
-        potatoTexture.dispose();
-        blueberryTexture.dispose();
-        flower1Texture.dispose();
-        flower2Texture.dispose();
-        flower3Texture.dispose();
+        if (sound != null) sound.dispose();
         oceanMap.dispose();
         oceanRenderer.dispose();
-        grass1Texture.dispose();
-        grass2Texture.dispose();
-        grass3Texture.dispose();
-        pathTexture.dispose();
-        fenceTexture.dispose();
-        for (Texture t : fenceTextures) {
-            if (t != null) t.dispose();
-        }
-        if (sound != null) sound.dispose();
-        if (coinTexture != null) coinTexture.dispose();
-        if (dirtTexture != null) dirtTexture.dispose();
-        if (farmerNpcTexture != null) farmerNpcTexture.dispose();
-        if (wheatSeedTexture != null) wheatSeedTexture.dispose();
-        if (carrotSeedTexture != null) carrotSeedTexture.dispose();
-        if (potatoSeedTexture != null) potatoSeedTexture.dispose();
-        if (blueberrySeedTexture != null) blueberrySeedTexture.dispose();
-        if (ui != null) ui.dispose();
+        if (atlas != null) atlas.dispose();
+        if (renderStats != null) renderStats.dispose();
+        if (terrainCache != null) terrainCache.dispose();
     }
 }
@@ -0,0 +1,7 @@
+package io.github.example_name;
+
+/**
+ * The crops that can be planted. WorldState stores a crop as its ordinal + 1
+ * (0 = no crop), so new types go at the end to keep saves readable.
+ */
+enum CropType { WHEAT, CARROT, POTATO, BLUEBERRY }
@@ -1,59 +1,145 @@
 package io.github.example_name;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * Fences and stone paths on the WorldState structure layer.
+ *
+ * Structures are sparse: the world keeps them in a LongByteMap, and this class
+ * keeps a Chunk only for each CHUNK_SIZE x CHUNK_SIZE area that has at least
+ * one, holding a compact list of its occupied cells and each fence's
+ * connection mask (which of its four neighbours are fences). Memory follows
+ * the number of structures placed, not the map area.
+ *
+ * A mask is only recomputed for a changed cell and its neighbours, and
+ * {@link #render} only visits the chunks on screen. Lookups for movement and
+ * placement ({@link #getTile}) are a single hash probe.
+ *
+ * Edits made here update the cache directly. Edits that reach the world some
+ * other way (network deltas, host requests) must be passed to
+ * {@link #onCellChanged}, and {@link #rebuild} after a whole world is loaded.
+ */
 public class FenceAndPath {
 
+    // ordinals match the WorldState.STRUCTURE_* bytes
     public enum Tile { EMPTY, FENCE, PATH }
+    private static final Tile[] TILES = Tile.values();
+
+    public static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_SHIFT = 4;   // log2(CHUNK_SIZE)
+    private static final byte PATH_ENTRY = 16;  // chunk mask value for a path, fences use 0-15
+
+    /**
+     * Occupied cells of one chunk, as local indices (ly * CHUNK_SIZE + lx), each with its
+     * fence mask or PATH_ENTRY so rendering never has to look the structure up.
+     */
+    private static class Chunk {
+        short[] cells = new short[8];
+        byte[] masks = new byte[8];
+        int size;
+
+        int indexOf(int local) {
+            for (int n = 0; n < size; n++) {
+                if (cells[n] == local) return n;
+            }
+            return -1;
+        }
+
+        void add(int local, byte mask) {
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+                masks = Arrays.copyOf(masks, size * 2);
+            }
+            cells[size] = (short) local;
+            masks[size] = mask;
+            size++;
+        }
 
-    private Tile[][] grid;
+        // swap-remove: the last cell takes this one's place
+        void removeAt(int n) {
+            size--;
+            cells[n] = cells[size];
+            masks[n] = masks[size];
+        }
+    }
+
+    private final WorldState world;
     private int width, height;
     private int tileSize;
 
-    private Texture[] fenceTextures; // 16 textures for each connection combo
-    private Texture pathTexture;
+    private TextureRegion[] fenceTextures; // 16 regions for each connection combo
+    private TextureRegion pathTexture;
+
+    private final LongMap<Chunk> chunks = new LongMap<>();
 
-    public FenceAndPath(int width, int height, int tileSize, Texture pathTexture, Texture[] fenceTextures) {
-        this.width = width;
-        this.height = height;
+    public FenceAndPath(WorldState world, int tileSize, TextureRegion pathTexture, TextureRegion[] fenceTextures) {
+        this.world = world;
+        this.width = world.width;
+        this.height = world.height;
         this.tileSize = tileSize;
         this.pathTexture = pathTexture;
         this.fenceTextures = fenceTextures;
-
-        grid = new Tile[width][height];
-        for (int x = 0; x < width; x++)
-            for (int y = 0; y < height; y++)
-                grid[x][y] = Tile.EMPTY;
+        rebuild();
     }
 
     public void placeFence(int x, int y) {
         if (!inBounds(x, y)) return;
-        grid[x][y] = Tile.FENCE;
+        world.setStructure(world.index(x, y), WorldState.STRUCTURE_FENCE);
 
         updateNeighbors(x, y);
     }
 
     public void removeFence(int x, int y) {
         if (!inBounds(x, y)) return;
-        if (grid[x][y] == Tile.FENCE) grid[x][y] = Tile.EMPTY;
+        if (world.structure(x, y) == WorldState.STRUCTURE_FENCE) {
+            world.setStructure(world.index(x, y), WorldState.STRUCTURE_NONE);
+            updateNeighbors(x, y);
+        }
     }
 
     public void removePath(int x, int y) {
         if (!inBounds(x, y)) return;
-        if (grid[x][y] == Tile.PATH) {
-            grid[x][y] = Tile.EMPTY;
+        if (world.structure(x, y) == WorldState.STRUCTURE_PATH) {
+            world.setStructure(world.index(x, y), WorldState.STRUCTURE_NONE);
+            updateNeighbors(x, y);
         }
     }
 
     public void placePath(int x, int y) {
         if (!inBounds(x, y)) return;
-        grid[x][y] = Tile.PATH;
+        world.setStructure(world.index(x, y), WorldState.STRUCTURE_PATH);
+        updateNeighbors(x, y);
+    }
+
+    /** Brings the cache up to date after the structure at {@code cell} was changed outside this class. */
+    public void onCellChanged(int cell) {
+        updateNeighbors(world.x(cell), world.y(cell));
+    }
+
+    /** Recomputes every chunk list and mask from the world's structures, e.g. after loading a save. */
+    public void rebuild() {
+        chunks.clear();
+        LongByteMap structures = world.getStructures();
+        for (int s = structures.nextSlot(0); s >= 0; s = structures.nextSlot(s + 1)) {
+            long key = structures.keyAt(s);
+            refreshFence(LongByteMap.unpackX(key), LongByteMap.unpackY(key));
+        }
+    }
+
+    /** Number of cells holding a fence or path. */
+    public int getStructureCount() {
+        int count = 0;
+        for (LongMap.Entry<Chunk> entry : chunks) count += entry.value.size;
+        return count;
     }
 
     public Tile getTile(int x, int y) {
         if (!inBounds(x, y)) return Tile.EMPTY;
-        return grid[x][y];
+        return TILES[world.structure(x, y)];
     }
 
     private boolean inBounds(int x, int y) {
@@ -61,10 +147,18 @@ public class FenceAndPath {
     }
 
     private boolean hasFence(int x, int y) {
-        return inBounds(x, y) && grid[x][y] == Tile.FENCE;
+        return inBounds(x, y) && world.structure(x, y) == WorldState.STRUCTURE_FENCE;
+    }
+
+    /** Cached connection mask of the fence at (x, y), see {@link #computeFenceIndex}; 0 if there is none. */
+    int getFenceIndex(int x, int y) {
+        Chunk chunk = chunks.get(LongByteMap.pack(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT));
+        if (chunk == null) return 0;
+        int n = chunk.indexOf(local(x, y));
+        return n < 0 || chunk.masks[n] == PATH_ENTRY ? 0 : chunk.masks[n];
     }
 
-    private int getFenceIndex(int x, int y) {
+    private int computeFenceIndex(int x, int y) {
         int index = 0;
         if (hasFence(x, y + 1)) index |= 1;    // up
         if (hasFence(x, y - 1)) index |= 2;    // down
@@ -73,24 +167,41 @@ public class FenceAndPath {
         return index;
     }
 
-    public void render(SpriteBatch batch) {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                float drawX = x * tileSize;
-                float drawY = y * tileSize;
-
-                switch (grid[x][y]) {
-                    case FENCE:
-                        int idx = getFenceIndex(x, y);
-                        batch.draw(fenceTextures[idx], drawX, drawY, tileSize, tileSize);
-                        break;
-                    case PATH:
+    /** Draws the fences and paths in the chunks overlapping {@code visible}. */
+    public void render(SpriteBatch batch, VisibleRange visible) {
+        if (visible.isEmpty()) return;
+        int minCx = visible.minX >> CHUNK_SHIFT, maxCx = visible.maxX >> CHUNK_SHIFT;
+        int minCy = visible.minY >> CHUNK_SHIFT, maxCy = visible.maxY >> CHUNK_SHIFT;
+
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                Chunk chunk = chunks.get(LongByteMap.pack(cx, cy));
+                if (chunk == null) continue;
+
+                int x0 = cx << CHUNK_SHIFT, y0 = cy << CHUNK_SHIFT;
+                for (int n = 0; n < chunk.size; n++) {
+                    int local = chunk.cells[n];
+                    int x = x0 + (local & (CHUNK_SIZE - 1));
+                    int y = y0 + (local >> CHUNK_SHIFT);
+                    if (!visible.contains(x, y)) continue;
+
+                    float drawX = x * tileSize;
+                    float drawY = y * tileSize;
+                    byte mask = chunk.masks[n];
+                    if (mask == PATH_ENTRY) {
                         batch.draw(pathTexture, drawX, drawY, tileSize, tileSize);
-                        break;
+                    } else {
+                        batch.draw(fenceTextures[mask], drawX, drawY, tileSize, tileSize);
+                    }
                 }
             }
         }
     }
+
+    private static int local(int x, int y) {
+        return ((y & (CHUNK_SIZE - 1)) << CHUNK_SHIFT) | (x & (CHUNK_SIZE - 1));
+    }
+
     private void updateNeighbors(int x, int y) {
         refreshFence(x, y);
         refreshFence(x + 1, y);
@@ -99,9 +210,31 @@ public class FenceAndPath {
         refreshFence(x, y - 1);
     }
 
+    // Re-lists the cell if it became (un)occupied and recomputes its mask if it is a fence
     private void refreshFence(int x, int y) {
         if (!inBounds(x, y)) return;
-        if (grid[x][y] == Tile.FENCE) {
+        byte structure = world.structure(x, y);
+        long chunkKey = LongByteMap.pack(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        Chunk chunk = chunks.get(chunkKey);
+        int local = local(x, y);
+        int n = chunk == null ? -1 : chunk.indexOf(local);
+
+        if (structure == WorldState.STRUCTURE_NONE) {
+            if (n < 0) return;
+            chunk.removeAt(n);
+            if (chunk.size == 0) chunks.remove(chunkKey);
+            return;
+        }
+
+        byte mask = structure == WorldState.STRUCTURE_FENCE ? (byte) computeFenceIndex(x, y) : PATH_ENTRY;
+        if (n >= 0) {
+            chunk.masks[n] = mask;
+            return;
+        }
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks.put(chunkKey, chunk);
         }
+        chunk.add(local, mask);
     }
 }
@@ -0,0 +1,196 @@
+package io.github.example_name;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Per-phase frame timings for Core.render().
+ *
+ * Each phase is timed with {@link #start()} / {@link #stop(int, long)} and
+ * summed for the frame (needs and movement run once per fixed tick, so they
+ * can be hit several times a frame). {@link #endFrame} stores the frame in a
+ * ring of the last HISTORY frames together with SpriteBatch render calls,
+ * texture binds and garbage collections, all in preallocated primitive arrays.
+ *
+ * p50/p99 per column are recomputed a few times a second for the overlay
+ * (F4), and {@link #dump(File)} writes the whole ring to CSV (F5).
+ *
+ * Sprite phases measure the CPU side: batched draws are flushed when the batch
+ * ends, so the flush for crops shows up under FENCES.
+ */
+public class FrameProfiler {
+
+    public static final int CHAT = 0;
+    public static final int NEEDS = 1;
+    public static final int MOVEMENT = 2;
+    public static final int SIMULATION = 3;
+    public static final int OCEAN = 4;
+    public static final int TERRAIN = 5;
+    public static final int CROPS = 6;
+    public static final int FENCES = 7;
+    public static final int NPCS = 8;
+    public static final int PLAYERS = 9;
+    public static final int HUD = 10;
+    public static final int PHASES = 11;
+
+    private static final String[] PHASE_NAMES = {
+        "chat", "needs", "movement", "simulation", "ocean", "terrain",
+        "crops", "fences", "npcs", "players", "hud"
+    };
+
+    // columns after the phases
+    public static final int FRAME = PHASES;            // whole frame, nanos
+    public static final int RENDER_CALLS = PHASES + 1;
+    public static final int TEXTURE_BINDS = PHASES + 2;
+    public static final int GC_COUNT = PHASES + 3;
+    public static final int GC_MILLIS = PHASES + 4;
+    public static final int COLUMNS = PHASES + 5;
+
+    public static final int HISTORY = 600;             // about 10 s at 60 fps
+    private static final long PERCENTILE_INTERVAL = 500_000_000L;
+
+    private final long[][] ring = new long[COLUMNS][HISTORY];
+    private final long[] current = new long[COLUMNS];
+    private int head = 0, size = 0;
+    private long frameStart;
+
+    // an array so the per-frame loop doesn't allocate an iterator
+    private final GarbageCollectorMXBean[] collectors =
+        ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+    private long lastGcCount, lastGcMillis;
+
+    private final long[] p50 = new long[COLUMNS];
+    private final long[] p99 = new long[COLUMNS];
+    private final long[] scratch = new long[HISTORY];
+    private long lastPercentiles;
+    private int percentileVersion;
+
+    public FrameProfiler() {
+        lastGcCount = gcCount();
+        lastGcMillis = gcMillis();
+    }
+
+    public void beginFrame() {
+        Arrays.fill(current, 0L);
+        frameStart = System.nanoTime();
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /** Adds the time since {@code start} to {@code phase} for this frame. */
+    public void stop(int phase, long start) {
+        current[phase] += System.nanoTime() - start;
+    }
+
+    /** Closes the frame. Counters are what the frame used (deltas, not totals). */
+    public void endFrame(int renderCalls, int textureBinds) {
+        long now = System.nanoTime();
+        current[FRAME] = now - frameStart;
+        current[RENDER_CALLS] = renderCalls;
+        current[TEXTURE_BINDS] = textureBinds;
+
+        long gcCount = gcCount(), gcMillis = gcMillis();
+        current[GC_COUNT] = gcCount - lastGcCount;
+        current[GC_MILLIS] = gcMillis - lastGcMillis;
+        lastGcCount = gcCount;
+        lastGcMillis = gcMillis;
+
+        for (int c = 0; c < COLUMNS; c++) ring[c][head] = current[c];
+        head = (head + 1) % HISTORY;
+        if (size < HISTORY) size++;
+
+        if (now - lastPercentiles >= PERCENTILE_INTERVAL) {
+            lastPercentiles = now;
+            updatePercentiles();
+        }
+    }
+
+    private void updatePercentiles() {
+        percentileVersion++;
+        for (int c = 0; c < COLUMNS; c++) {
+            System.arraycopy(ring[c], 0, scratch, 0, size);
+            Arrays.sort(scratch, 0, size);
+            p50[c] = size == 0 ? 0 : scratch[(size - 1) / 2];
+            p99[c] = size == 0 ? 0 : scratch[Math.min(size - 1, (int) Math.ceil(size * 0.99) - 1)];
+        }
+    }
+
+    private long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors) total += Math.max(0, gc.getCollectionCount());
+        return total;
+    }
+
+    private long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors) total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    // --------------------------------------------------------------------------
+    // RESULTS
+    // --------------------------------------------------------------------------
+
+    public static String phaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /** Median of a column over the history, as of the last percentile update (nanos for time columns). */
+    public long p50(int column) {
+        return p50[column];
+    }
+
+    public long p99(int column) {
+        return p99[column];
+    }
+
+    /** Sum of a column over the history, e.g. collections in the last HISTORY frames. */
+    public long total(int column) {
+        long sum = 0;
+        for (int n = 0; n < size; n++) sum += ring[column][n];
+        return sum;
+    }
+
+    /** Changes whenever p50/p99 are recomputed, so callers can cache text built from them. */
+    public int getPercentileVersion() {
+        return percentileVersion;
+    }
+
+    public int getFrameCount() {
+        return size;
+    }
+
+    /** Writes the recorded frames, oldest first, one row per frame with times in microseconds. */
+    public void dump(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("Can't create " + dir);
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            StringBuilder header = new StringBuilder("frame");
+            for (int p = 0; p < PHASES; p++) header.append(',').append(PHASE_NAMES[p]).append("_us");
+            header.append(",frame_us,render_calls,texture_binds,gc_count,gc_ms");
+            out.println(header);
+
+            int oldest = (head - size + HISTORY) % HISTORY;
+            StringBuilder row = new StringBuilder();
+            for (int n = 0; n < size; n++) {
+                int slot = (oldest + n) % HISTORY;
+                row.setLength(0);
+                row.append(n);
+                for (int c = 0; c < COLUMNS; c++) {
+                    row.append(',');
+                    if (c <= FRAME) row.append(ring[c][slot] / 1000.0);
+                    else row.append(ring[c][slot]);
+                }
+                out.println(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.example_name;
+
+/**
+ * World game clock in seconds since the world was created.
+ *
+ * Crops only store the clock time they were planted, everything else about
+ * them (growth percent, size, ripeness) is derived from {@link #now()} when
+ * needed. That keeps growth identical after a save/load or on another peer
+ * as long as the clock value itself is carried over.
+ */
+public class GameClock {
+
+    // accumulated in double so long sessions don't drift, handed out as float
+    private double time;
+
+    public void advance(float delta) {
+        if (delta > 0f) time += delta;
+    }
+
+    public float now() {
+        return (float) time;
+    }
+
+    public double exact() {
+        return time;
+    }
+
+    /** Jump to a saved or received clock value. */
+    public void set(double time) {
+        this.time = Math.max(0.0, time);
+    }
+}
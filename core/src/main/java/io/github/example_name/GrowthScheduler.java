@@ -0,0 +1,108 @@
+package io.github.example_name;
+
+/**
+ * Min-heap of timed world events (decor regrowing on un-tilled soil), keyed
+ * by the game time they are due. Crops don't need events: their growth is
+ * derived from the planting time (see WorldState.cropGrowth).
+ *
+ * Each event is registered once when the timer starts, and
+ * {@link #advance(float, Listener)} only pops the events that are due, so the
+ * per-frame cost depends on how many timers are running rather than on the
+ * size of the map. Entries live in parallel primitive arrays, so
+ * scheduling and firing do not allocate.
+ *
+ * Events are never cancelled: when a timer is restarted the old entry simply
+ * fires later and the listener ignores it if the cell no longer matches.
+ */
+public class GrowthScheduler {
+
+    public interface Listener {
+        void onDue(int kind, int cell, float dueTime);
+    }
+
+    public static final int REGROW = 0;
+
+    private float[] due = new float[64];
+    private int[] cells = new int[64];
+    private byte[] kinds = new byte[64];
+    private int size = 0;
+
+    public void schedule(float dueTime, int kind, int cell) {
+        if (size == due.length) grow();
+
+        // sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (due[parent] <= dueTime) break;
+            due[i] = due[parent];
+            cells[i] = cells[parent];
+            kinds[i] = kinds[parent];
+            i = parent;
+        }
+        due[i] = dueTime;
+        cells[i] = cell;
+        kinds[i] = (byte) kind;
+    }
+
+    /** Fires every event due at or before {@code now}, in due order. Returns how many fired. */
+    public int advance(float now, Listener listener) {
+        int fired = 0;
+        while (size > 0 && due[0] <= now) {
+            float t = due[0];
+            int cell = cells[0];
+            int kind = kinds[0];
+            removeTop();
+            listener.onDue(kind, cell, t);
+            fired++;
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void removeTop() {
+        size--;
+        if (size == 0) return;
+
+        float lastDue = due[size];
+        int lastCell = cells[size];
+        byte lastKind = kinds[size];
+
+        // sift the last entry down from the root
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && due[right] < due[child]) child = right;
+            if (lastDue <= due[child]) break;
+            due[i] = due[child];
+            cells[i] = cells[child];
+            kinds[i] = kinds[child];
+            i = child;
+        }
+        due[i] = lastDue;
+        cells[i] = lastCell;
+        kinds[i] = lastKind;
+    }
+
+    private void grow() {
+        int n = due.length * 2;
+        float[] newDue = new float[n];
+        int[] newCells = new int[n];
+        byte[] newKinds = new byte[n];
+        System.arraycopy(due, 0, newDue, 0, size);
+        System.arraycopy(cells, 0, newCells, 0, size);
+        System.arraycopy(kinds, 0, newKinds, 0, size);
+        due = newDue;
+        cells = newCells;
+        kinds = newKinds;
+    }
+}
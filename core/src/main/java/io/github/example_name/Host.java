@@ -1,14 +1,16 @@
 package io.github.example_name;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Simple LAN chat server.
@@ -19,6 +21,12 @@ import java.util.List;
  *
  * Any client that connects to this machine's local IP on the same port
  * can send and receive chat messages that are broadcast to everyone.
+ *
+ * All sockets are served by one thread running a java.nio Selector. Messages
+ * use the binary framing in {@link Protocol}; outgoing frames are encoded once
+ * into a pooled buffer and appended to a ring buffer per connection,
+ * which is flushed whenever the socket can take more, so one slow client
+ * only backs up its own queue and never stalls the others.
  */
 public class Host {
 
@@ -27,15 +35,48 @@ public class Host {
         void onMessageReceived(String message);
     }
 
+    /**
+     * Game (non-chat) frames from clients, called on the network thread. When a
+     * listener is set it owns game traffic and the Host no longer relays it.
+     */
+    public interface FrameListener {
+        void onFrame(int clientId, int type, ByteBuffer payload) throws IOException;
+
+        default void onClientConnected(int clientId) {}
+
+        default void onClientDisconnected(int clientId) {}
+    }
+
+    // per-connection limits
+    private static final int READ_BUFFER_SIZE = 4096;
+    private static final int WRITE_QUEUE_INITIAL = 8 * 1024;
+    private static final int WRITE_QUEUE_MAX = 1024 * 1024;   // a client this far behind is dropped
+
     private final int port;
     private final MessageListener listener;
+    private volatile FrameListener frameListener;
+    private int nextClientId = 1;
 
     private volatile boolean running = false;
     private Thread serverThread;
-    private ServerSocket serverSocket;
+    private Selector selector;
 
-    private final List<ClientHandler> clients =
-        Collections.synchronizedList(new ArrayList<>());
+    // only touched on the selector thread
+    private final List<Connection> clients = new ArrayList<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+    // broadcasts from other threads (the game) are handed to the selector thread here
+    private final ConcurrentLinkedQueue<Outgoing> outbox = new ConcurrentLinkedQueue<>();
+
+    private static class Outgoing {
+        final int target;   // client id, 0 for everyone, -id for everyone but that client
+        final ByteBuffer frame;
+
+        Outgoing(int target, ByteBuffer frame) {
+            this.target = target;
+            this.frame = frame;
+        }
+    }
 
     public Host(int port, MessageListener listener) {
         this.port = port;
@@ -49,8 +90,15 @@ public class Host {
     public synchronized void start() {
         if (running) return;
 
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            System.out.println("[Host] Failed to open selector: " + e.getMessage());
+            return;
+        }
+
         running = true;
-        serverThread = new Thread(this::runServer, "ChatHost-ServerThread");
+        serverThread = new Thread(this::runServer, "ChatHost-Selector");
         serverThread.setDaemon(true);
         serverThread.start();
     }
@@ -58,20 +106,8 @@ public class Host {
     public synchronized void stop() {
         running = false;
 
-        // Close the server socket to break out of accept()
-        if (serverSocket != null && !serverSocket.isClosed()) {
-            try {
-                serverSocket.close();
-            } catch (IOException ignored) {}
-        }
-
-        // Close all clients
-        synchronized (clients) {
-            for (ClientHandler ch : clients) {
-                ch.close();
-            }
-            clients.clear();
-        }
+        // Wake the selector so the loop notices and closes everything
+        if (selector != null) selector.wakeup();
     }
 
 
@@ -79,13 +115,17 @@ public class Host {
         return running;
     }
 
+    public void setFrameListener(FrameListener frameListener) {
+        this.frameListener = frameListener;
+    }
+
+    /** Sends a chat message to every client. Safe to call from any thread, never blocks on a socket. */
     public void broadcast(String message) {
-        synchronized (clients) {
-            // Use a copy to avoid ConcurrentModificationException
-            List<ClientHandler> snapshot = new ArrayList<>(clients);
-            for (ClientHandler ch : snapshot) {
-                ch.send(message);
-            }
+        if (running) {
+            ByteBuffer frame = Protocol.POOL.acquire();
+            Protocol.writeChat(frame, message);
+            frame.flip();
+            broadcastFrame(frame);
         }
 
         // Also notify local listener (e.g., to show in host's chat box)
@@ -94,32 +134,68 @@ public class Host {
         }
     }
 
-    private void runServer() {
-        try (ServerSocket server = new ServerSocket(port)) {
-            this.serverSocket = server;
-            System.out.println("[Host] Chat server started on port " + port);
+    /**
+     * Sends an encoded frame (flipped, taken from {@link Protocol#POOL}) to every
+     * client. The Host returns the buffer to the pool once it has been queued.
+     */
+    public void broadcastFrame(ByteBuffer frame) {
+        sendFrame(0, frame);
+    }
 
-            while (running) {
-                try {
-                    Socket socket = server.accept();
-                    if (!running) {
-                        socket.close();
-                        break;
-                    }
+    /** Like {@link #broadcastFrame} but to everyone except one client. */
+    public void broadcastFrameExcept(int clientId, ByteBuffer frame) {
+        sendFrame(-clientId, frame);
+    }
 
-                    ClientHandler handler = new ClientHandler(socket);
-                    synchronized (clients) {
-                        clients.add(handler);
-                    }
+    /** Like {@link #broadcastFrame} but for one client; id 0 means everyone. */
+    public void sendFrame(int clientId, ByteBuffer frame) {
+        if (!running) {
+            Protocol.POOL.release(frame);
+            return;
+        }
+        outbox.add(new Outgoing(clientId, frame));
+        selector.wakeup();
+    }
 
-                    Thread t = new Thread(handler, "ChatHost-ClientHandler");
-                    t.setDaemon(true);
-                    t.start();
+    // --------------------------------------------------------------------------
+    // SELECTOR LOOP
+    // --------------------------------------------------------------------------
+    private void runServer() {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.configureBlocking(false);
+            server.bind(new InetSocketAddress(port));
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("[Host] Chat server started on port " + port);
 
-                    System.out.println("[Host] Client connected: " + socket.getInetAddress());
-                } catch (IOException e) {
-                    if (running) {
-                        System.out.println("[Host] Error accepting client: " + e.getMessage());
+            while (running) {
+                selector.select();
+                if (!running) break;
+
+                drainOutbox();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    try {
+                        if (key.isAcceptable()) {
+                            accept(server);
+                        } else {
+                            Connection c = (Connection) key.attachment();
+                            if (key.isReadable()) read(c);
+                            if (key.isValid() && key.isWritable()) flush(c);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // a bad frame or a bug in a handler only costs the connection it came from
+                        Object att = key.attachment();
+                        if (att instanceof Connection) {
+                            System.out.println("[Host] Client error: " + e);
+                            close((Connection) att);
+                        } else if (running) {
+                            System.out.println("[Host] Error accepting client: " + e.getMessage());
+                        }
                     }
                 }
             }
@@ -127,82 +203,234 @@ public class Host {
             System.out.println("[Host] Failed to start server on port " + port + ": " + e.getMessage());
         } finally {
             running = false;
+            for (Connection c : new ArrayList<>(clients)) close(c);
+            Outgoing pending;
+            while ((pending = outbox.poll()) != null) Protocol.POOL.release(pending.frame);
+            try {
+                selector.close();
+            } catch (IOException ignored) {}
             System.out.println("[Host] Server stopped.");
         }
     }
 
-    private class ClientHandler implements Runnable {
-        private final Socket socket;
-        private BufferedReader in;
-        private PrintWriter out;
-        private volatile boolean connected = true;
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
 
-        ClientHandler(Socket socket) {
-            this.socket = socket;
-            try {
-                this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                this.out = new PrintWriter(socket.getOutputStream(), true);
-            } catch (IOException e) {
-                System.out.println("[Host] Error setting up client I/O: " + e.getMessage());
-                connected = false;
-                close();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection c = new Connection(channel, nextClientId++);
+        c.key = channel.register(selector, SelectionKey.OP_READ, c);
+        clients.add(c);
+
+        System.out.println("[Host] Client connected: " + c.address);
+
+        // Optional: send a welcome message
+        ByteBuffer welcome = Protocol.POOL.acquire();
+        Protocol.writeChat(welcome, "System: Welcome to the chat!");
+        welcome.flip();
+        send(c, welcome);
+        Protocol.POOL.release(welcome);
+
+        FrameListener fl = frameListener;
+        if (fl != null) fl.onClientConnected(c.id);
+    }
+
+    private void read(Connection c) throws IOException {
+        readBuffer.clear();
+        int n = c.channel.read(readBuffer);
+        if (n < 0) {
+            close(c);
+            return;
+        }
+        readBuffer.flip();
+        c.decoder.feed(readBuffer, c.handler);
+    }
+
+    private void onFrame(Connection sender, int type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case Protocol.CHAT: {
+                // the text already contains "username: text" from the client
+                String msg = "[Client " + sender.address + "]: " + Protocol.getString(payload);
+                relayChat(sender, msg);
+                break;
+            }
+            case Protocol.HELLO: {
+                sender.username = Protocol.getString(payload);
+                relayChat(sender, "[Client " + sender.address + "]: " + sender.username + " joined");
+                break;
+            }
+            default: {
+                FrameListener fl = frameListener;
+                if (fl != null) {
+                    fl.onFrame(sender.id, type, payload);
+                    break;
+                }
+
+                // no game attached: just relay to the other clients as-is
+                ByteBuffer frame = Protocol.POOL.acquire();
+                int f = Protocol.beginFrame(frame, (byte) type);
+                frame.put(payload);
+                Protocol.endFrame(frame, f);
+                frame.flip();
+                sendToOthers(sender, frame);
+                Protocol.POOL.release(frame);
             }
         }
+    }
 
-        @Override
-        public void run() {
-            if (!connected) return;
+    private void relayChat(Connection sender, String msg) {
+        // Broadcast to all *other* clients (not back to the sender)
+        ByteBuffer frame = Protocol.POOL.acquire();
+        Protocol.writeChat(frame, msg);
+        frame.flip();
+        sendToOthers(sender, frame);
+        Protocol.POOL.release(frame);
 
-            try {
-                // Optional: send a welcome message
-                send("System: Welcome to the chat!");
-
-                String line;
-                while (connected && (line = in.readLine()) != null) {
-                    // `line` already contains "username: text" from the client
-                    String msg = "[Client " + socket.getInetAddress().getHostAddress() + "]: " + line;
-
-                    // Broadcast to all *other* clients (not back to the sender)
-                    synchronized (clients) {
-                        List<ClientHandler> snapshot = new ArrayList<>(clients);
-                        for (ClientHandler ch : snapshot) {
-                            if (ch != this) {      // <- key change: do not echo to sender
-                                ch.send(msg);
-                            }
-                        }
-                    }
+        // Also tell the host / game
+        if (listener != null) {
+            listener.onMessageReceived(msg);
+        }
+    }
 
-                    // Also tell the host / game
-                    if (listener != null) {
-                        listener.onMessageReceived(msg);
-                    }
-                }
-            } catch (IOException e) {
-                if (connected) {
-                    System.out.println("[Host] Client error: " + e.getMessage());
+    private void sendToOthers(Connection sender, ByteBuffer frame) {
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Connection c = clients.get(i);
+            if (c != sender) send(c, frame);
+        }
+    }
+
+    private void drainOutbox() {
+        Outgoing out;
+        while ((out = outbox.poll()) != null) {
+            for (int i = clients.size() - 1; i >= 0; i--) {
+                Connection c = clients.get(i);
+                if (out.target == 0 || out.target == c.id || (out.target < 0 && -out.target != c.id)) {
+                    send(c, out.frame);
                 }
-            } finally {
-                close();
             }
+            Protocol.POOL.release(out.frame);
         }
+    }
 
-        void send(String msg) {
-            if (out != null) {
-                out.println(msg);
-            }
+    /** Queues a frame for a client and writes as much as the socket accepts right now. */
+    private void send(Connection c, ByteBuffer frame) {
+        if (!c.queue.offer(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining())) {
+            System.out.println("[Host] Client " + c.address + " is not keeping up, dropping it");
+            close(c);
+            return;
         }
+        try {
+            flush(c);
+        } catch (IOException e) {
+            System.out.println("[Host] Client error: " + e.getMessage());
+            close(c);
+        }
+    }
 
-        void close() {
-            connected = false;
-            synchronized (clients) {
-                clients.remove(this);
+    private void flush(Connection c) throws IOException {
+        c.queue.writeTo(c.channel);
+        if (!c.key.isValid()) return;
+
+        // Only ask for OP_WRITE while something is left over
+        int ops = c.queue.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+        if (c.key.interestOps() != ops) c.key.interestOps(ops);
+    }
+
+    private void close(Connection c) {
+        if (!clients.remove(c)) return;
+        FrameListener fl = frameListener;
+        if (fl != null) fl.onClientDisconnected(c.id);
+        if (c.key != null) c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException ignored) {}
+        System.out.println("[Host] Client disconnected.");
+    }
+
+    // --------------------------------------------------------------------------
+    // CONNECTION STATE
+    // --------------------------------------------------------------------------
+    private class Connection {
+        final SocketChannel channel;
+        final int id;
+        final String address;
+        final WriteQueue queue = new WriteQueue(WRITE_QUEUE_INITIAL, WRITE_QUEUE_MAX);
+        final Protocol.Decoder decoder = new Protocol.Decoder();
+        final Protocol.FrameHandler handler = (type, payload) -> onFrame(this, type, payload);
+        SelectionKey key;
+        String username;
+
+        Connection(SocketChannel channel, int id) {
+            this.channel = channel;
+            this.id = id;
+            this.address = channel.socket().getInetAddress().getHostAddress();
+        }
+    }
+
+    /**
+     * Growable byte ring buffer holding data a socket hasn't accepted yet.
+     * Grows by doubling up to {@code max} bytes, after which offers fail.
+     */
+    static class WriteQueue {
+        private byte[] buf;
+        private ByteBuffer view;
+        private final int max;
+        private int head = 0;   // first unsent byte
+        private int size = 0;
+
+        WriteQueue(int initial, int max) {
+            this.buf = new byte[initial];
+            this.view = ByteBuffer.wrap(buf);
+            this.max = max;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean offer(byte[] src, int off, int len) {
+            if (size + len > buf.length && !grow(size + len)) return false;
+
+            int tail = (head + size) % buf.length;
+            int first = Math.min(len, buf.length - tail);
+            System.arraycopy(src, off, buf, tail, first);
+            System.arraycopy(src, off + first, buf, 0, len - first);
+            size += len;
+            return true;
+        }
+
+        /** Writes queued bytes until the channel stops accepting them. */
+        void writeTo(SocketChannel channel) throws IOException {
+            while (size > 0) {
+                int chunk = Math.min(size, buf.length - head);
+                view.limit(head + chunk).position(head);
+                int written = channel.write(view);
+                head = (head + written) % buf.length;
+                size -= written;
+                if (written < chunk) break;   // socket buffer is full
             }
-            try {
-                if (socket != null && !socket.isClosed()) {
-                    socket.close();
-                }
-            } catch (IOException ignored) {}
-            System.out.println("[Host] Client disconnected.");
+            if (size == 0) head = 0;
+        }
+
+        private boolean grow(int needed) {
+            if (needed > max) return false;
+            int n = buf.length;
+            while (n < needed) n *= 2;
+            n = Math.min(n, max);
+
+            byte[] bigger = new byte[n];
+            int first = Math.min(size, buf.length - head);
+            System.arraycopy(buf, head, bigger, 0, first);
+            System.arraycopy(buf, 0, bigger, first, size - first);
+            buf = bigger;
+            view = ByteBuffer.wrap(buf);
+            head = 0;
+            return true;
         }
     }
 }
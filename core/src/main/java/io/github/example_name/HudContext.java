@@ -0,0 +1,132 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Shared screen-space state for everything drawn over the world (inventory,
+ * coins, shop, chat, health bars, overlays).
+ *
+ * The HUD is drawn in a single SpriteBatch pass: Core calls {@link #begin},
+ * every panel adds its sprites, text and {@link #rect rectangles} (the atlas'
+ * white region tinted with the batch colour) in back-to-front order, and Core
+ * ends the batch once. Icons, glyphs and rectangles all sit on the world atlas
+ * page, so the pass is one flush however many panels are open.
+ *
+ * A steady frame allocates nothing:
+ *  - one pixel-space projection, rebuilt only when the window size changes
+ *  - cached GlyphLayouts for fixed labels (re-laid out if the font scale or colour changes)
+ *  - {@link NumberText} for numbers that are drawn every frame but rarely change
+ *  - one Vector3 for unprojecting the mouse
+ *
+ * GL thread only.
+ */
+public class HudContext {
+
+    /** The String for an int, rebuilt only when the value changes. */
+    public static class NumberText {
+        private int value;
+        private String text;
+
+        public String get(int newValue) {
+            if (text == null || newValue != value) {
+                value = newValue;
+                text = Integer.toString(newValue);
+            }
+            return text;
+        }
+    }
+
+    private final TextureRegion white;
+    private final Matrix4 projection = new Matrix4();
+    private int width = -1, height = -1;
+
+    private static class CachedLayout {
+        final GlyphLayout layout = new GlyphLayout();
+        float scale = Float.NaN;
+        float color;
+    }
+
+    private final ObjectMap<String, CachedLayout> layouts = new ObjectMap<>();
+    private final GlyphLayout scratchLayout = new GlyphLayout();
+
+    private final Vector3 touch = new Vector3();
+
+    public HudContext(TextureRegion white) {
+        this.white = white;
+    }
+
+    /** Call from resize(); the projection is also checked against the window size on use. */
+    public void resize(int newWidth, int newHeight) {
+        if (newWidth == width && newHeight == height) return;
+        width = newWidth;
+        height = newHeight;
+        projection.setToOrtho2D(0, 0, width, height);
+    }
+
+    /** Screen-space projection (0,0 bottom left, one unit per pixel). */
+    public Matrix4 projection() {
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        return projection;
+    }
+
+    /** Starts the HUD pass: switches the batch to screen space and begins it. The caller ends it. */
+    public void begin(SpriteBatch batch) {
+        batch.setProjectionMatrix(projection());
+        batch.begin();
+    }
+
+    /** Filled rectangle in the current pass. Blending is the batch's (on, source alpha). */
+    public void rect(SpriteBatch batch, float x, float y, float width, float height,
+                     float r, float g, float b, float a) {
+        float oldColor = batch.getPackedColor();
+        batch.setColor(r, g, b, a);
+        batch.draw(white, x, y, width, height);
+        batch.setPackedColor(oldColor);
+    }
+
+    public void rect(SpriteBatch batch, float x, float y, float width, float height, Color color) {
+        rect(batch, x, y, width, height, color.r, color.g, color.b, color.a);
+    }
+
+    /**
+     * Layout of a fixed label at the font's current scale and colour. The
+     * returned layout is cached per string, so only pass text that doesn't
+     * change every frame.
+     */
+    public GlyphLayout layout(BitmapFont font, String label) {
+        float scale = font.getData().scaleX;
+        float color = font.getColor().toFloatBits();
+        CachedLayout cached = layouts.get(label);
+        if (cached == null) {
+            cached = new CachedLayout();
+            layouts.put(label, cached);
+        }
+        if (cached.scale != scale || cached.color != color) {
+            cached.layout.setText(font, label);
+            cached.scale = scale;
+            cached.color = color;
+        }
+        return cached.layout;
+    }
+
+    /** Lays out changing text into a shared layout, valid until the next call. */
+    public GlyphLayout layoutOnce(BitmapFont font, CharSequence text) {
+        scratchLayout.setText(font, text);
+        return scratchLayout;
+    }
+
+    /** Mouse position in {@code camera}'s world coordinates, in a shared vector. */
+    public Vector3 unprojectMouse(Camera camera) {
+        touch.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        return camera.unproject(touch);
+    }
+}
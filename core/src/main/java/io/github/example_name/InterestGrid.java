@@ -0,0 +1,113 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+
+/**
+ * Area-of-interest bookkeeping for the host.
+ *
+ * The map is divided into REGION_SIZE x REGION_SIZE tile regions. Each client
+ * is interested in the block of regions within RADIUS of the region its player
+ * stands in (the camera follows the player, so this covers its viewport plus
+ * a margin). Tile changes and player moves are only sent to clients whose area
+ * contains them; when an area moves, the regions it newly covers are reported
+ * so the caller can send those in bulk.
+ *
+ * Runs on the GL thread only.
+ */
+public class InterestGrid {
+
+    public static final int REGION_SIZE = 16;
+    // 5x5 regions = 80x80 tiles, enough for a 1080p window at 32px tiles
+    public static final int RADIUS = 2;
+
+    public static class Area {
+        public int minX = 0, minY = 0, maxX = -1, maxY = -1;   // in regions, inclusive
+
+        // players this client currently has an avatar for
+        final IntSet visiblePlayers = new IntSet();
+
+        public boolean isEmpty() {
+            return maxX < minX || maxY < minY;
+        }
+
+        public boolean contains(int rx, int ry) {
+            return rx >= minX && rx <= maxX && ry >= minY && ry <= maxY;
+        }
+    }
+
+    public final int width, height;
+    public final int regionsX, regionsY;
+    private final IntMap<Area> areas = new IntMap<>();
+
+    public InterestGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.regionsX = (width + REGION_SIZE - 1) / REGION_SIZE;
+        this.regionsY = (height + REGION_SIZE - 1) / REGION_SIZE;
+    }
+
+    public int regionCount() {
+        return regionsX * regionsY;
+    }
+
+    /**
+     * Centres a client's area on the given tile. Regions that were not already
+     * in its area are appended to {@code entered} (as ry * regionsX + rx).
+     */
+    public void focus(int clientId, int tileX, int tileY, IntArray entered) {
+        Area a = areas.get(clientId);
+        if (a == null) {
+            a = new Area();
+            areas.put(clientId, a);
+        }
+
+        int rx = clamp(tileX / REGION_SIZE, regionsX), ry = clamp(tileY / REGION_SIZE, regionsY);
+        int minX = Math.max(0, rx - RADIUS), maxX = Math.min(regionsX - 1, rx + RADIUS);
+        int minY = Math.max(0, ry - RADIUS), maxY = Math.min(regionsY - 1, ry + RADIUS);
+        if (minX == a.minX && maxX == a.maxX && minY == a.minY && maxY == a.maxY) return;
+
+        for (int y = minY; y <= maxY; y++)
+            for (int x = minX; x <= maxX; x++)
+                if (!a.contains(x, y)) entered.add(y * regionsX + x);
+
+        a.minX = minX;
+        a.maxX = maxX;
+        a.minY = minY;
+        a.maxY = maxY;
+    }
+
+    /** Whether a client's area covers tile (x, y). Clients with no known position see nothing. */
+    public boolean contains(int clientId, int tileX, int tileY) {
+        Area a = areas.get(clientId);
+        return a != null && a.contains(tileX / REGION_SIZE, tileY / REGION_SIZE);
+    }
+
+    public Area area(int clientId) {
+        return areas.get(clientId);
+    }
+
+    public IntMap.Keys clients() {
+        return areas.keys();
+    }
+
+    public void remove(int clientId) {
+        areas.remove(clientId);
+    }
+
+    /**
+     * Records whether {@code target} should now see {@code player}. Returns +1 if
+     * it just came into view, -1 if it just left, 0 if nothing changed.
+     */
+    public int updateVisibility(int target, int player, boolean visible) {
+        Area a = areas.get(target);
+        if (a == null) return 0;
+        if (visible) return a.visiblePlayers.add(player) ? 1 : 0;
+        return a.visiblePlayers.remove(player) ? -1 : 0;
+    }
+
+    private static int clamp(int v, int count) {
+        return Math.max(0, Math.min(count - 1, v));
+    }
+}
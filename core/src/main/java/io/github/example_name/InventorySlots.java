@@ -0,0 +1,48 @@
+package io.github.example_name;
+
+/**
+ * Slot lookups over the parallel inventory arrays (item name per slot, count
+ * per slot) that Core keeps and WorldSave stores. Empty slots have a null name.
+ */
+public final class InventorySlots {
+
+    private InventorySlots() {
+    }
+
+    /** First slot holding {@code item}, or -1. */
+    public static int indexOf(String[] items, String item) {
+        for (int i = 0; i < items.length; i++) {
+            if (item.equals(items[i])) return i;
+        }
+        return -1;
+    }
+
+    /** First empty slot, or -1. */
+    public static int firstEmpty(String[] items) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null) return i;
+        }
+        return -1;
+    }
+
+    /** First slot that is empty or already holds {@code item}, whichever comes first; -1 if neither. */
+    public static int firstFree(String[] items, String item) {
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null || item.equals(items[i])) return i;
+        }
+        return -1;
+    }
+
+    /** Slot to add {@code item} to: its existing stack if there is one, else the first empty slot. */
+    public static int stackOrEmpty(String[] items, String item) {
+        int slot = indexOf(items, item);
+        return slot != -1 ? slot : firstEmpty(items);
+    }
+
+    public static boolean has(String[] items, int[] counts, String item) {
+        for (int i = 0; i < items.length; i++) {
+            if (item.equals(items[i]) && counts[i] > 0) return true;
+        }
+        return false;
+    }
+}
@@ -1,94 +1,259 @@
 package io.github.example_name;
 
+import com.badlogic.gdx.utils.Array;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * Seeded world generator. Nothing is stored here: {@link #generateChunk} fills
+ * one WorldChunk on demand, and any chunk can be regenerated at any time with
+ * the same result, so ChunkStore can drop unmodified chunks freely.
+ *
+ * Land is a pure function of (seed, x, y) built from per-tile hash noise: the
+ * start island and its three small neighbours inside WIDTH x HEIGHT, and a
+ * scattered archipelago everywhere else. Decor draws from a counter-based
+ * stream per tile (SplitMix64 seeded by the tile's hash), so no state is
+ * shared between tiles or chunks and {@link #generateChunks} can fill many
+ * chunks in parallel with the same result as one thread.
+ */
 public class Island {
+    // size of the start area (main island and its neighbours), the default world size
     public static final int WIDTH = 170, HEIGHT = 130;
 
-    public static final int[][] DATA = new int[HEIGHT][WIDTH];      // terrain: 0=water, 1=grass, 2=sand
-    public static final int[][] DECOR = new int[HEIGHT][WIDTH];     // grass decor (1–3)
-    public static final boolean[][] FLIP = new boolean[HEIGHT][WIDTH];
+    public static final long DEFAULT_SEED = 42L;
+
+    public static final int DEFAULT_SHORE_RADIUS = 3;  // sand reaches this far from land (Euclidean)
+    private static final int ARCHIPELAGO_CELL = 64;    // one possible island per cell outside the start area
+
+    // hash salts, one per noise layer
+    private static final long SALT_MAIN = 1, SALT_SMALL = 2, SALT_ARCHIPELAGO = 3, SALT_DECOR = 4;
 
-    public static final int[][] FLOWER = new int[HEIGHT][WIDTH];    // flower decor (1–3)
-    public static final boolean[][] FLOWER_FLIP = new boolean[HEIGHT][WIDTH];
+    // below this many chunks a ForkJoin task generates them itself instead of splitting
+    private static final int CHUNKS_PER_TASK = 2;
 
     // --- NPC data ---
     public static final List<NPC> NPCS = new ArrayList<>();
 
     static {
-        Random r = new Random(42);
-        int cx = WIDTH / 2, cy = HEIGHT / 2;
+        addNPCs(DEFAULT_SEED);
+    }
 
-        // --- main island generation ---
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                double dx = (x - cx) / 1.2, dy = (y - cy) / 1.4;
-                double dist = Math.sqrt(dx * dx + dy * dy);
-                double radius = 24, edge = smoothstep(radius + 3, radius - 6, dist);
-                double noise = (r.nextDouble() - 0.5) * 4.0;
-                DATA[y][x] = (dist + noise < radius * edge) ? 1 : 0;
+    // --------------------------------------------------------------------------
+    // CHUNKS
+    // --------------------------------------------------------------------------
+
+    /**
+     * Generates chunks [from, to) of {@code chunks} on the common ForkJoin pool.
+     * Each chunk only depends on the seed and its coordinates, so the output is
+     * the same whatever the thread count or order.
+     */
+    public static void generateChunks(long seed, Array<WorldChunk> chunks, int from, int to) {
+        generateChunks(seed, DEFAULT_SHORE_RADIUS, chunks, from, to);
+    }
+
+    /** Same as {@link #generateChunks(long, Array, int, int)} with sand up to {@code shoreRadius} tiles from land. */
+    public static void generateChunks(long seed, int shoreRadius, Array<WorldChunk> chunks, int from, int to) {
+        GenerateTask task = new GenerateTask(seed, shoreRadius, chunks, from, to);
+        if (to - from <= CHUNKS_PER_TASK) task.compute();   // not worth a hand-off to the pool
+        else ForkJoinPool.commonPool().invoke(task);
+    }
+
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long seed;
+        private final int shoreRadius;
+        private final Array<WorldChunk> chunks;
+        private final int from, to;
+
+        GenerateTask(long seed, int shoreRadius, Array<WorldChunk> chunks, int from, int to) {
+            this.seed = seed;
+            this.shoreRadius = shoreRadius;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                for (int n = from; n < to; n++) generateChunk(seed, shoreRadius, chunks.get(n));
+                return;
             }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GenerateTask(seed, shoreRadius, chunks, from, mid),
+                new GenerateTask(seed, shoreRadius, chunks, mid, to));
         }
+    }
+
+    /** Fills {@code chunk}'s terrain and decor for its chunk coordinates. Other layers are left as they are. */
+    public static void generateChunk(long seed, WorldChunk chunk) {
+        generateChunk(seed, DEFAULT_SHORE_RADIUS, chunk);
+    }
 
-        // --- generate small additional islands ---
-        generateSmoothIsland(cx + 55, cy + 28, 9, 7, r);
-        generateSmoothIsland(cx - 65, cy - 35, 10, 8, r);
-        generateSmoothIsland(cx + 60, cy - 40, 12, 9, r);
+    /** Same as {@link #generateChunk(long, WorldChunk)} with sand up to {@code shoreRadius} tiles from land. */
+    public static void generateChunk(long seed, int shoreRadius, WorldChunk chunk) {
+        int size = WorldChunk.SIZE;
+        int x0 = chunk.cx * size, y0 = chunk.cy * size;
 
-        // --- create sand border around land ---
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                if (DATA[y][x] == 0 && hasLandWithinRadius(x, y))
-                    DATA[y][x] = 2;
+        // --- land over the chunk plus a shoreRadius apron, for the sand border ---
+        int span = size + 2 * shoreRadius;
+        boolean[] land = new boolean[span * span];
+        for (int ay = 0; ay < span; ay++)
+            for (int ax = 0; ax < span; ax++)
+                land[ay * span + ax] = isLand(seed, x0 + ax - shoreRadius, y0 + ay - shoreRadius);
+
+        // --- terrain: land is grass, water within shoreRadius of land is sand ---
+        int[] dist = shoreDistances(land, span, shoreRadius);
+        int limit = shoreRadius * shoreRadius;
+        for (int ly = 0; ly < size; ly++)
+            for (int lx = 0; lx < size; lx++) {
+                int a = (ly + shoreRadius) * span + lx + shoreRadius;
+                int c = ly * size + lx;
+                if (land[a]) chunk.terrain[c] = 1;
+                else if (dist[a] <= limit) chunk.terrain[c] = 2;
+                else chunk.terrain[c] = 0;
+            }
+
+        // --- decorative grass and flower placement, one stream per tile ---
+        SplitMix r = new SplitMix();
+        for (int c = 0; c < WorldChunk.CELLS; c++) {
+            if (chunk.terrain[c] != 1) continue;
+            r.seed(mix(seed, x0 + (c & WorldChunk.MASK), y0 + (c >> WorldChunk.SHIFT), SALT_DECOR));
+            // Grass patches (12% chance)
+            if (r.nextDouble() < 0.12) {
+                chunk.decor[c] = (byte) (r.nextInt(3) + 1); // grass1–3
+                chunk.decorFlip[c] = r.nextBoolean();
+            }
+
+            // Flowers (4% chance)
+            if (r.nextDouble() < 0.04) {
+                chunk.flower[c] = (byte) (r.nextInt(3) + 1); // flower1–3
+                chunk.flowerFlip[c] = r.nextBoolean();
             }
         }
+    }
 
-        // --- decorative grass and flower placement ---
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                if (DATA[y][x] == 1) {
-                    // Grass patches (12% chance)
-                    if (r.nextDouble() < 0.12) {
-                        DECOR[y][x] = r.nextInt(3) + 1; // grass1–3
-                        FLIP[y][x] = r.nextBoolean();
-                    }
+    // --------------------------------------------------------------------------
+    // SHORE (exact squared Euclidean distance transform, linear in the tile count)
+    // --------------------------------------------------------------------------
 
-                    // Flowers (4% chance)
-                    if (r.nextDouble() < 0.04) {
-                        FLOWER[y][x] = r.nextInt(3) + 1; // flower1–3
-                        FLOWER_FLIP[y][x] = r.nextBoolean();
-                    }
-                }
+    /**
+     * Squared distance from every cell of a span x span grid to the nearest
+     * land cell, in two separable passes (Felzenszwalb and Huttenlocher): the
+     * vertical distance down each column, then the lower envelope of parabolas
+     * along each row. Distances beyond {@code radius} are only known to be
+     * larger than radius squared, which is all the sand test needs.
+     */
+    private static int[] shoreDistances(boolean[] land, int span, int radius) {
+        int far = radius + 1;
+        int[] dist = new int[span * span];
+
+        // --- columns: squared distance to the nearest land above or below, capped ---
+        for (int x = 0; x < span; x++) {
+            int d = far;
+            for (int y = 0; y < span; y++) {
+                d = land[y * span + x] ? 0 : Math.min(far, d + 1);
+                dist[y * span + x] = d;
+            }
+            d = far;
+            for (int y = span - 1; y >= 0; y--) {
+                int i = y * span + x;
+                d = land[i] ? 0 : Math.min(far, d + 1);
+                int v = Math.min(dist[i], d);
+                dist[i] = v * v;
             }
         }
 
-        // --- place NPC(s) ---
-        addNPCs(r);
-    }
+        // --- rows: dist[x] = min over j of (x - j)^2 + column[j] ---
+        int[] f = new int[span];
+        int[] hull = new int[span];              // parabola vertices in the lower envelope
+        double[] bound = new double[span + 1];   // where each parabola starts to be the lowest
+        for (int y = 0; y < span; y++) {
+            int row = y * span;
+            System.arraycopy(dist, row, f, 0, span);
 
-    // --- helper methods ---
-    private static boolean hasLandWithinRadius(int x, int y) {
-        for (int dy = -3; dy <= 3; dy++)
-            for (int dx = -3; dx <= 3; dx++) {
-                int nx = x + dx, ny = y + dy;
-                if (nx >= 0 && ny >= 0 && ny < HEIGHT && nx < WIDTH)
-                    if (DATA[ny][nx] == 1 && Math.sqrt(dx * dx + dy * dy) <= 3)
-                        return true;
+            int k = 0;
+            hull[0] = 0;
+            bound[0] = Double.NEGATIVE_INFINITY;
+            bound[1] = Double.POSITIVE_INFINITY;
+            for (int q = 1; q < span; q++) {
+                double s;
+                while ((s = intersect(f, q, hull[k])) <= bound[k]) k--;
+                k++;
+                hull[k] = q;
+                bound[k] = s;
+                bound[k + 1] = Double.POSITIVE_INFINITY;
             }
-        return false;
-    }
 
-    private static void generateSmoothIsland(int cx, int cy, int rx, int ry, Random r) {
-        for (int y = Math.max(0, cy - ry - 3); y < Math.min(HEIGHT, cy + ry + 3); y++)
-            for (int x = Math.max(0, cx - rx - 3); x < Math.min(WIDTH, cx + rx + 3); x++) {
-                double dx = (x - cx) / (double) rx, dy = (y - cy) / (double) ry;
-                double dist = Math.sqrt(dx * dx + dy * dy);
-                double noise = (r.nextDouble() - 0.5) * 0.5;
-                if (dist + noise < 1.0)
-                    DATA[y][x] = 1;
+            k = 0;
+            for (int x = 0; x < span; x++) {
+                while (bound[k + 1] < x) k++;
+                int dx = x - hull[k];
+                dist[row + x] = dx * dx + f[hull[k]];
             }
+        }
+        return dist;
+    }
+
+    // x where the parabolas rooted at q and p (p < q) cross
+    private static double intersect(int[] f, int q, int p) {
+        return ((f[q] + q * q) - (f[p] + p * p)) / (2.0 * (q - p));
+    }
+
+    // --------------------------------------------------------------------------
+    // LAND
+    // --------------------------------------------------------------------------
+
+    /** Whether (x, y) is land (grass) in the world generated from {@code seed}. */
+    public static boolean isLand(long seed, int x, int y) {
+        if (x >= 0 && y >= 0 && x < WIDTH && y < HEIGHT) return isStartLand(seed, x, y);
+        return isArchipelagoLand(seed, x, y);
+    }
+
+    private static boolean isStartLand(long seed, int x, int y) {
+        int cx = WIDTH / 2, cy = HEIGHT / 2;
+
+        // --- main island ---
+        double dx = (x - cx) / 1.2, dy = (y - cy) / 1.4;
+        double dist = Math.sqrt(dx * dx + dy * dy);
+        double radius = 24, edge = smoothstep(radius + 3, radius - 6, dist);
+        double noise = (noise(seed, x, y, SALT_MAIN) - 0.5) * 4.0;
+        if (dist + noise < radius * edge) return true;
+
+        // --- small additional islands ---
+        return isSmoothIsland(seed, x, y, cx + 55, cy + 28, 9, 7)
+            || isSmoothIsland(seed, x, y, cx - 65, cy - 35, 10, 8)
+            || isSmoothIsland(seed, x, y, cx + 60, cy - 40, 12, 9);
+    }
+
+    private static boolean isSmoothIsland(long seed, int x, int y, int cx, int cy, int rx, int ry) {
+        if (x < cx - rx - 3 || x >= cx + rx + 3 || y < cy - ry - 3 || y >= cy + ry + 3) return false;
+        double dx = (x - cx) / (double) rx, dy = (y - cy) / (double) ry;
+        double dist = Math.sqrt(dx * dx + dy * dy);
+        double noise = (noise(seed, x, y, SALT_SMALL) - 0.5) * 0.5;
+        return dist + noise < 1.0;
+    }
+
+    // Roughly every other ARCHIPELAGO_CELL square holds one island, kept inside its own
+    // square and out of the start area so the two never overlap.
+    private static boolean isArchipelagoLand(long seed, int x, int y) {
+        int cellX = Math.floorDiv(x, ARCHIPELAGO_CELL), cellY = Math.floorDiv(y, ARCHIPELAGO_CELL);
+        int startCellsX = (WIDTH + ARCHIPELAGO_CELL - 1) / ARCHIPELAGO_CELL;
+        int startCellsY = (HEIGHT + ARCHIPELAGO_CELL - 1) / ARCHIPELAGO_CELL;
+        if (cellX >= 0 && cellY >= 0 && cellX < startCellsX && cellY < startCellsY) return false;
+
+        long h = mix(seed, cellX, cellY, SALT_ARCHIPELAGO);
+        if ((h & 1) == 0) return false;
+        int margin = ARCHIPELAGO_CELL / 4;
+        int icx = cellX * ARCHIPELAGO_CELL + margin + (int) ((h >>> 8) & 31);
+        int icy = cellY * ARCHIPELAGO_CELL + margin + (int) ((h >>> 16) & 31);
+        int rx = 5 + (int) ((h >>> 24) & 7), ry = 5 + (int) ((h >>> 32) & 7);
+        return isSmoothIsland(seed, x, y, icx, icy, rx, ry);
     }
 
     private static double smoothstep(double edge0, double edge1, double x) {
@@ -96,11 +261,64 @@ public class Island {
         return t * t * (3 - 2 * t);
     }
 
+    // --------------------------------------------------------------------------
+    // HASHING (stateless, so any tile can be generated in any order)
+    // --------------------------------------------------------------------------
+
+    /** Uniform value in [0, 1) for tile (x, y) of one noise layer. */
+    private static double noise(long seed, int x, int y, long salt) {
+        return (mix(seed, x, y, salt) >>> 11) * 0x1.0p-53;
+    }
+
+    static long mix(long seed, int x, int y, long salt) {
+        long h = seed * 0x9E3779B97F4A7C15L + salt;
+        h = fmix(h ^ (x & 0xFFFFFFFFL) * 0xC2B2AE3D27D4EB4FL);
+        return fmix(h ^ (y & 0xFFFFFFFFL) * 0x165667B19E3779F9L);
+    }
+
+    /** SplitMix64: a counter run through a mixer, so a stream is just its starting value. */
+    static final class SplitMix {
+        private long state;
+
+        void seed(long seed) {
+            state = seed;
+        }
+
+        long nextLong() {
+            long z = state += 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+
+        int nextInt(int bound) {
+            return (int) (((nextLong() >>> 32) * bound) >>> 32);
+        }
+
+        boolean nextBoolean() {
+            return nextLong() < 0;
+        }
+    }
+
+    // murmur3 64-bit finalizer
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC9L;
+        h ^= h >>> 33;
+        return h;
+    }
+
     // --- NPC types ---
     public enum NPCType { GENERIC, FARMER }
 
     // --- NPC generation ---
-    private static void addNPCs(Random r) {
+    private static void addNPCs(long seed) {
         // Place a starter Farmer near the center on grass
         int fx = WIDTH / 2, fy = HEIGHT / 2;
         // find nearest grass tile
@@ -110,7 +328,7 @@ public class Island {
             for (int dy = -rad; dy <= rad && !placed; dy++) {
                 for (int dx = -rad; dx <= rad && !placed; dx++) {
                     int nx = fx + dx, ny = fy + dy;
-                    if (nx >= 0 && ny >= 0 && nx < WIDTH && ny < HEIGHT && DATA[ny][nx] == 1) {
+                    if (isLand(seed, nx, ny)) {
                         NPC farmer = new NPC("Farmer", nx, ny,
                             "Howdy! I’ll buy your crops.", NPCType.FARMER);
                         NPCS.add(farmer);
@@ -121,11 +339,12 @@ public class Island {
         }
 
         // Optionally keep a generic islander elsewhere (random grass)
+        Random r = new Random(seed);
         int x, y;
         do {
             x = r.nextInt(WIDTH);
             y = r.nextInt(HEIGHT);
-        } while (DATA[y][x] != 1);
+        } while (!isLand(seed, x, y));
         NPC generic = new NPC("Islander", x, y, "Welcome to our island!", NPCType.GENERIC);
         NPCS.add(generic);
     }
@@ -0,0 +1,177 @@
+package io.github.example_name;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to byte values, in two parallel
+ * primitive arrays (linear probing, backward-shift removal), so lookups and
+ * edits never box or allocate except when the table grows.
+ *
+ * Used for sparse layers where almost every cell has the default value, such
+ * as WorldState's structures: memory follows the number of entries, not the
+ * map area. Putting the default value (0) removes the key.
+ *
+ * {@link #EMPTY} marks free slots and can't be used as a key; keys from
+ * {@link #pack(int, int)} never produce it for real coordinates.
+ */
+public class LongByteMap {
+
+    public static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private byte[] values;
+    private int size;
+    private int mask, threshold;
+
+    public LongByteMap() {
+        this(32);
+    }
+
+    public LongByteMap(int initialCapacity) {
+        allocate(Math.max(8, Integer.highestOneBit(Math.max(1, (int) (initialCapacity / LOAD_FACTOR)) - 1) << 1));
+    }
+
+    /** Packs a tile coordinate into a key, x in the high and y in the low 32 bits. */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackY(long key) {
+        return (int) key;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new byte[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;   // Fibonacci hashing, spreads packed x/y into the low bits
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int find(long key) {
+        for (int i = hash(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return i;
+            if (k == EMPTY) return -1;
+        }
+    }
+
+    /** Value for {@code key}, or 0 if it has none. */
+    public byte get(long key) {
+        int i = find(key);
+        return i < 0 ? 0 : values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /** Sets the value for {@code key}; 0 removes it. */
+    public void put(long key, byte value) {
+        if (value == 0) {
+            remove(key);
+            return;
+        }
+        int i = hash(key);
+        for (; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) break;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) resize(keys.length << 1);
+    }
+
+    public void remove(long key) {
+        int i = find(key);
+        if (i < 0) return;
+        size--;
+
+        // shift later entries of the probe run back so lookups never hit a false gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(keys[j]);
+            // move j into the gap unless its home lies cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, (byte) 0);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int j = hash(k);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+
+    /** Makes this map equal to {@code src}, reusing the arrays when the table sizes match. */
+    public void copyFrom(LongByteMap src) {
+        if (keys.length != src.keys.length) {
+            keys = new long[src.keys.length];
+            values = new byte[src.values.length];
+            mask = src.mask;
+            threshold = src.threshold;
+        }
+        System.arraycopy(src.keys, 0, keys, 0, keys.length);
+        System.arraycopy(src.values, 0, values, 0, values.length);
+        size = src.size;
+    }
+
+    // --------------------------------------------------------------------------
+    // ITERATION (by table slot, no iterator object)
+    //   for (int s = map.nextSlot(0); s >= 0; s = map.nextSlot(s + 1)) map.keyAt(s) ...
+    // --------------------------------------------------------------------------
+
+    /** First used slot at or after {@code from}, or -1. Slots are invalidated by put and remove. */
+    public int nextSlot(int from) {
+        for (int i = from; i < keys.length; i++) {
+            if (keys[i] != EMPTY) return i;
+        }
+        return -1;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public byte valueAt(int slot) {
+        return values[slot];
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.example_name;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Binary framing shared by Host and Client.
+ *
+ * Every message is one frame:
+ *   varint  length of everything after it (type + payload)
+ *   byte    message type
+ *   payload fields, ints as (zig-zag) varints, floats as 4 bytes, strings as varint length + UTF-8
+ *
+ * The get* readers check what is left of the frame and throw IOException
+ * ("Truncated frame") rather than a BufferUnderflowException, so a short frame
+ * from one peer only closes that connection.
+ *
+ * Frames are written straight into pooled ByteBuffers and read in place out of a
+ * per-connection {@link Decoder}, so game messages (tiles, positions, crops)
+ * encode and decode without allocating. Chat text still becomes a String for display.
+ */
+public final class Protocol {
+
+    private Protocol() {}
+
+    public static final int MAX_FRAME = 64 * 1024;
+
+    // the length prefix is reserved as a fixed 3-byte varint so it can be patched in afterwards
+    private static final int LENGTH_BYTES = 3;
+
+    // --- message types ---
+    public static final byte CHAT = 1;             // string text
+    public static final byte HELLO = 2;            // string username
+    public static final byte TILE_CHANGE = 3;      // x, y, layer, value
+    public static final byte PLAYER_POSITION = 4;  // player id, x, y (float), facing
+    public static final byte CROP_EVENT = 5;       // x, y, event, crop type
+    public static final byte WORLD_DELTA = 6;      // see WorldReplicator
+    public static final byte DELTA_ACK = 7;        // tick
+    public static final byte PLAYER_LEFT = 8;      // player id
+
+    // player id a client writes in its own PLAYER_POSITION frames: it doesn't
+    // know its id, the host takes it from the connection and ignores this field
+    public static final int SELF_PLAYER_ID = 0;
+
+    // TILE_CHANGE layers
+    public static final int LAYER_TILLED = 0;
+    public static final int LAYER_STRUCTURE = 1;
+    public static final int LAYER_DECOR = 2;
+
+    // CROP_EVENT events
+    public static final int CROP_PLANTED = 0;
+    public static final int CROP_HARVESTED = 1;
+
+    /** Receives decoded frames; {@code payload} is positioned at the first field and limited to the frame. */
+    public interface FrameHandler {
+        void onFrame(int type, ByteBuffer payload) throws IOException;
+    }
+
+    // --------------------------------------------------------------------------
+    // FRAMING
+    // --------------------------------------------------------------------------
+
+    /** Starts a frame of the given type, returning the offset to pass to {@link #endFrame}. */
+    public static int beginFrame(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.position(start + LENGTH_BYTES);
+        out.put(type);
+        return start;
+    }
+
+    public static void endFrame(ByteBuffer out, int start) {
+        int length = out.position() - start - LENGTH_BYTES;
+        if (length >= 1 << 21) throw new IllegalStateException("Frame too large: " + length);
+        out.put(start, (byte) ((length & 0x7F) | 0x80));
+        out.put(start + 1, (byte) (((length >>> 7) & 0x7F) | 0x80));
+        out.put(start + 2, (byte) (length >>> 14));
+    }
+
+    // --------------------------------------------------------------------------
+    // FIELDS
+    // --------------------------------------------------------------------------
+    public static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!in.hasRemaining()) throw new IOException("Truncated frame");
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static void require(ByteBuffer in, int bytes) throws IOException {
+        if (in.remaining() < bytes) throw new IOException("Truncated frame");
+    }
+
+    public static byte getByte(ByteBuffer in) throws IOException {
+        require(in, 1);
+        return in.get();
+    }
+
+    public static int getInt(ByteBuffer in) throws IOException {
+        require(in, 4);
+        return in.getInt();
+    }
+
+    public static float getFloat(ByteBuffer in) throws IOException {
+        require(in, 4);
+        return in.getFloat();
+    }
+
+    public static double getDouble(ByteBuffer in) throws IOException {
+        require(in, 8);
+        return in.getDouble();
+    }
+
+    /** Signed ints go through zig-zag so small negatives stay small. */
+    public static void putSignedVarInt(ByteBuffer out, int value) {
+        putVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    public static int getSignedVarInt(ByteBuffer in) throws IOException {
+        int raw = getVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public static void putString(ByteBuffer out, CharSequence s) {
+        // encode in place: reserve the length after counting UTF-8 bytes
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) bytes++;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length()) { bytes += 4; i++; }
+            else bytes += 3;
+        }
+        putVarInt(out, bytes);
+
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /** Reads a string field. Only valid on heap buffers (as handed out by {@link Decoder}). */
+    public static String getString(ByteBuffer in) throws IOException {
+        int len = getVarInt(in);
+        if (len < 0 || len > in.remaining()) throw new IOException("Bad string length " + len);
+        String s = new String(in.array(), in.arrayOffset() + in.position(), len, StandardCharsets.UTF_8);
+        in.position(in.position() + len);
+        return s;
+    }
+
+    // --------------------------------------------------------------------------
+    // MESSAGES
+    // --------------------------------------------------------------------------
+    public static void writeChat(ByteBuffer out, CharSequence text) {
+        int start = beginFrame(out, CHAT);
+        putString(out, text);
+        endFrame(out, start);
+    }
+
+    public static void writeHello(ByteBuffer out, CharSequence username) {
+        int start = beginFrame(out, HELLO);
+        putString(out, username);
+        endFrame(out, start);
+    }
+
+    public static void writeTileChange(ByteBuffer out, int x, int y, int layer, int value) {
+        int start = beginFrame(out, TILE_CHANGE);
+        putVarInt(out, x);
+        putVarInt(out, y);
+        putVarInt(out, layer);
+        putSignedVarInt(out, value);
+        endFrame(out, start);
+    }
+
+    public static void writePlayerPosition(ByteBuffer out, int playerId, float x, float y, int facing) {
+        int start = beginFrame(out, PLAYER_POSITION);
+        putVarInt(out, playerId);
+        out.putFloat(x);
+        out.putFloat(y);
+        putVarInt(out, facing);
+        endFrame(out, start);
+    }
+
+    public static void writeCropEvent(ByteBuffer out, int x, int y, int event, int cropType) {
+        int start = beginFrame(out, CROP_EVENT);
+        putVarInt(out, x);
+        putVarInt(out, y);
+        putVarInt(out, event);
+        putSignedVarInt(out, cropType);
+        endFrame(out, start);
+    }
+
+    public static void writePlayerLeft(ByteBuffer out, int playerId) {
+        int start = beginFrame(out, PLAYER_LEFT);
+        putVarInt(out, playerId);
+        endFrame(out, start);
+    }
+
+    public static void writeDeltaAck(ByteBuffer out, int tick) {
+        int start = beginFrame(out, DELTA_ACK);
+        putVarInt(out, tick);
+        endFrame(out, start);
+    }
+
+    // --------------------------------------------------------------------------
+    // DECODER
+    // --------------------------------------------------------------------------
+
+    /**
+     * Reassembles frames from a byte stream. Bytes are copied into one reusable
+     * buffer per connection and each complete frame is handed out as a view of it.
+     */
+    public static class Decoder {
+        private final ByteBuffer buffer = ByteBuffer.allocate(MAX_FRAME + LENGTH_BYTES);
+
+        /** Consumes everything in {@code in}, calling the handler once per complete frame. */
+        public void feed(ByteBuffer in, FrameHandler handler) throws IOException {
+            while (in.hasRemaining()) {
+                // copy as much as fits, then parse what we have
+                int n = Math.min(in.remaining(), buffer.remaining());
+                int limit = in.limit();
+                in.limit(in.position() + n);
+                buffer.put(in);
+                in.limit(limit);
+
+                buffer.flip();
+                parse(handler);
+                buffer.compact();
+
+                if (!buffer.hasRemaining() && in.hasRemaining()) {
+                    throw new IOException("Frame larger than " + MAX_FRAME + " bytes");
+                }
+            }
+        }
+
+        private void parse(FrameHandler handler) throws IOException {
+            while (true) {
+                int start = buffer.position();
+                int length = peekLength();
+                if (length < 0) {
+                    buffer.position(start);
+                    return;
+                }
+                if (length == 0 || length > MAX_FRAME) throw new IOException("Bad frame length " + length);
+                if (buffer.remaining() < length) {
+                    buffer.position(start);
+                    return;
+                }
+
+                int end = buffer.position() + length;
+                int limit = buffer.limit();
+                byte type = buffer.get();
+                buffer.limit(end);
+                try {
+                    handler.onFrame(type, buffer);
+                } finally {
+                    buffer.limit(limit);
+                    buffer.position(end);
+                }
+            }
+        }
+
+        // varint length, or -1 if not all of it has arrived yet
+        private int peekLength() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (!buffer.hasRemaining()) return -1;
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Malformed frame length");
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // BUFFER POOL
+    // --------------------------------------------------------------------------
+
+    /** Shared pool of frame-sized heap buffers so encoding doesn't allocate per message. */
+    public static class BufferPool {
+        private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+        private final int bufferSize;
+        private final int maxPooled;
+
+        public BufferPool(int bufferSize, int maxPooled) {
+            this.bufferSize = bufferSize;
+            this.maxPooled = maxPooled;
+        }
+
+        public synchronized ByteBuffer acquire() {
+            ByteBuffer b = free.pollFirst();
+            if (b == null) b = ByteBuffer.allocate(bufferSize);
+            b.clear();
+            return b;
+        }
+
+        public synchronized void release(ByteBuffer b) {
+            if (b != null && b.capacity() == bufferSize && free.size() < maxPooled) free.addFirst(b);
+        }
+    }
+
+    public static final BufferPool POOL = new BufferPool(MAX_FRAME + LENGTH_BYTES, 64);
+}
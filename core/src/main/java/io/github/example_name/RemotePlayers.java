@@ -0,0 +1,151 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Other players' avatars, smoothed between network updates.
+ *
+ * Positions arrive at {@link #SEND_RATE} per second. Each avatar keeps a short
+ * buffer of timestamped samples and is drawn {@link #INTERP_DELAY} in the past,
+ * interpolating between the two samples around that time. If the next sample is
+ * late the avatar keeps moving along its last velocity for up to
+ * {@link #MAX_EXTRAPOLATION} seconds (dead reckoning), then stops and waits.
+ *
+ * All methods run on the GL thread.
+ */
+public class RemotePlayers {
+
+    public static final float SEND_RATE = 15f;
+    public static final float SEND_INTERVAL = 1f / SEND_RATE;
+
+    // about two send intervals, so one late packet doesn't cause a stall
+    private static final float INTERP_DELAY = 2f / SEND_RATE;
+    private static final float MAX_EXTRAPOLATION = 0.25f;
+    private static final float TIMEOUT = 5f;
+    private static final int SAMPLES = 8;
+
+    public static class Avatar {
+        public final int id;
+        public float x, y;          // position to draw this frame
+        public int direction;       // Walking direction of the sample being shown
+        public float animTime;      // how long it has walked in that direction
+
+        private final float[] times = new float[SAMPLES];
+        private final float[] xs = new float[SAMPLES];
+        private final float[] ys = new float[SAMPLES];
+        private final byte[] dirs = new byte[SAMPLES];
+        private int newest = -1, count = 0;
+        private float lastHeard;
+
+        Avatar(int id) {
+            this.id = id;
+        }
+
+        void add(float time, float px, float py, int dir) {
+            newest = (newest + 1) % SAMPLES;
+            times[newest] = time;
+            xs[newest] = px;
+            ys[newest] = py;
+            dirs[newest] = (byte) dir;
+            if (count < SAMPLES) count++;
+            lastHeard = time;
+            if (count == 1) {
+                x = px;
+                y = py;
+                direction = dir;
+            }
+        }
+
+        // n = 0 is the newest sample
+        private int slot(int n) {
+            return (newest - n + SAMPLES) % SAMPLES;
+        }
+
+        void sample(float renderTime, float delta) {
+            int dir;
+            int a = slot(0);
+            if (count == 1 || renderTime <= times[slot(count - 1)]) {
+                // nothing to blend yet, or still before the oldest sample
+                int s = count == 1 ? a : slot(count - 1);
+                x = xs[s];
+                y = ys[s];
+                dir = dirs[s];
+            } else if (renderTime >= times[a]) {
+                // past the newest sample: carry on along the last velocity for a bit
+                int b = slot(1);
+                float dt = times[a] - times[b];
+                float ahead = Math.min(renderTime - times[a], MAX_EXTRAPOLATION);
+                if (dt > 0f) {
+                    x = xs[a] + (xs[a] - xs[b]) / dt * ahead;
+                    y = ys[a] + (ys[a] - ys[b]) / dt * ahead;
+                } else {
+                    x = xs[a];
+                    y = ys[a];
+                }
+                dir = renderTime - times[a] > MAX_EXTRAPOLATION ? 0 : dirs[a];
+            } else {
+                // find the two samples around renderTime
+                int n = 1;
+                while (n < count - 1 && times[slot(n)] > renderTime) n++;
+                int to = slot(n - 1), from = slot(n);
+                float span = times[to] - times[from];
+                float t = span > 0f ? (renderTime - times[from]) / span : 1f;
+                x = xs[from] + (xs[to] - xs[from]) * t;
+                y = ys[from] + (ys[to] - ys[from]) * t;
+                dir = dirs[from];
+            }
+
+            if (dir != direction) {
+                direction = dir;
+                animTime = 0f;
+            } else {
+                animTime += delta;
+            }
+        }
+    }
+
+    private final IntMap<Avatar> avatars = new IntMap<>();
+    private float time = 0f;
+
+    /** Records a position update for player {@code id}. */
+    public void onPosition(int id, float x, float y, int direction) {
+        Avatar a = avatars.get(id);
+        if (a == null) {
+            a = new Avatar(id);
+            avatars.put(id, a);
+        }
+        a.add(time, x, y, direction);
+    }
+
+    public void remove(int id) {
+        avatars.remove(id);
+    }
+
+    public void clear() {
+        avatars.clear();
+    }
+
+    /** Advances the clock and moves every avatar to where it should be drawn this frame. */
+    public void update(float delta) {
+        time += delta;
+        float renderTime = time - INTERP_DELAY;
+
+        IntMap.Values<Avatar> values = avatars.values();
+        while (values.hasNext()) {
+            Avatar a = values.next();
+            if (time - a.lastHeard > TIMEOUT) {
+                values.remove();
+                continue;
+            }
+            a.sample(renderTime, delta);
+        }
+    }
+
+    public IntMap.Values<Avatar> all() {
+        return avatars.values();
+    }
+
+    public int size() {
+        return avatars.size;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+/**
+ * Per-frame draw call and texture bind counter, backed by libGDX's GLProfiler.
+ *
+ * Core calls {@link #beginFrame()} at the start of render(), {@link #endWorldPass()}
+ * after the terrain/crop/fence/player draws and {@link #endFrame()} once the HUD is
+ * done. The numbers from the last finished frame can then be shown on screen (F3)
+ * to check how many batches a world frame actually costs.
+ *
+ * GLProfiler wraps every GL call (with a glGetError check), so it is only
+ * enabled while an overlay needs the numbers (see {@link #setEnabled}); while
+ * disabled every count reads 0.
+ */
+public class RenderStats {
+
+    private final GLProfiler profiler;
+
+    private int worldDrawCalls;
+    private int worldTextureBindings;
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+
+    public RenderStats() {
+        profiler = new GLProfiler(Gdx.graphics);
+    }
+
+    /** Turns the GL interceptor on or off; cheap to call every frame. */
+    public void setEnabled(boolean enabled) {
+        if (enabled == profiler.isEnabled()) return;
+        if (enabled) {
+            profiler.enable();
+        } else {
+            profiler.disable();
+            worldDrawCalls = worldTextureBindings = drawCalls = textureBindings = shaderSwitches = 0;
+        }
+    }
+
+    public void beginFrame() {
+        profiler.reset();
+    }
+
+    public void endWorldPass() {
+        worldDrawCalls = profiler.getDrawCalls();
+        worldTextureBindings = profiler.getTextureBindings();
+    }
+
+    public void endFrame() {
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        shaderSwitches = profiler.getShaderSwitches();
+    }
+
+    public int getWorldDrawCalls() {
+        return worldDrawCalls;
+    }
+
+    public int getWorldTextureBindings() {
+        return worldTextureBindings;
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public int getTextureBindings() {
+        return textureBindings;
+    }
+
+    public int getShaderSwitches() {
+        return shaderSwitches;
+    }
+
+    public void dispose() {
+        profiler.disable();
+    }
+}
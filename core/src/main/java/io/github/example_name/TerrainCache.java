@@ -0,0 +1,205 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Pre-baked static terrain (grass, sand, grass decor, flowers and tilled dirt)
+ * held in a SpriteCache, split into CHUNK_SIZE x CHUNK_SIZE tile chunks.
+ *
+ * The cache is a fixed pool of SLOT_COUNT slots, each with room for the most
+ * sprites a chunk could ever need. Visible chunks are baked into a slot the
+ * first time they come into view and keep it until a newer chunk needs the
+ * least recently drawn slot, so GPU memory stays the same however large the
+ * world is.
+ *
+ * A baked chunk is only rebuilt after {@link #markDirty(int, int)} is called
+ * for one of its cells, so a frame where nothing changed costs one draw call
+ * per visible chunk and texture instead of one batch.draw per sprite.
+ */
+public class TerrainCache {
+
+    public static final int CHUNK_SIZE = 16;
+
+    // comfortably more than the chunks on screen at 1920x1080 with the visible margin
+    private static final int SLOT_COUNT = 64;
+    // grass + decor + flower + tilled dirt on every cell
+    private static final int SLOT_CAPACITY = CHUNK_SIZE * CHUNK_SIZE * 4;
+    private static final long NO_CHUNK = Long.MIN_VALUE;
+
+    private final int tileSize;
+    private final int gridWidth, gridHeight;
+    private final WorldState world;
+
+    private final TextureRegion grass, sand, dirt;
+    private final TextureRegion[] decor;   // grass1-3
+    private final TextureRegion[] flowers; // flower1-3
+
+    private final SpriteCache cache;
+    private final int[] cacheIds = new int[SLOT_COUNT];
+    private final long[] slotChunk = new long[SLOT_COUNT];    // LongByteMap.pack(cx, cy) of the baked chunk
+    private final int[] slotDrawn = new int[SLOT_COUNT];      // frame the slot was last drawn
+    private final boolean[] dirty = new boolean[SLOT_COUNT];
+    private final LongMap<Integer> slots = new LongMap<>();   // chunk -> slot (small Integers are cached, no boxing garbage)
+    private final IntArray visibleSlots = new IntArray();
+    private int frame = 0;
+
+    public TerrainCache(WorldState world, int tileSize,
+                        TextureRegion grass, TextureRegion sand, TextureRegion dirt,
+                        TextureRegion[] decor, TextureRegion[] flowers) {
+        this.world = world;
+        this.gridWidth = world.width;
+        this.gridHeight = world.height;
+        this.tileSize = tileSize;
+
+        this.grass = grass;
+        this.sand = sand;
+        this.dirt = dirt;
+        this.decor = decor;
+        this.flowers = flowers;
+
+        // no indices: the pool exceeds the 8191 sprite limit of indexed caches
+        cache = new SpriteCache(SLOT_COUNT * SLOT_CAPACITY, false);
+
+        // Every slot reserves the full capacity so later bakes can redefine it in place
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            cache.beginCache();
+            for (int i = 0; i < SLOT_CAPACITY; i++) {
+                cache.add(this.grass, 0, 0, 0, 0); // zero-area padding reserves space
+            }
+            cacheIds[slot] = cache.endCache();
+            slotChunk[slot] = NO_CHUNK;
+            slotDrawn[slot] = -1;
+        }
+    }
+
+    /** Call whenever terrain, decor, flowers or tilled state changes at (x, y). */
+    public void markDirty(int x, int y) {
+        if (x < 0 || y < 0 || x >= gridWidth || y >= gridHeight) return;
+        Integer slot = slots.get(LongByteMap.pack(x / CHUNK_SIZE, y / CHUNK_SIZE));
+        if (slot != null) dirty[slot] = true;
+    }
+
+    /** Draws every chunk that overlaps the visible range, baking or rebuilding them first. */
+    public void render(OrthographicCamera camera, VisibleRange visible) {
+        frame++;
+        if (visible.isEmpty()) return;
+
+        int minCx = visible.minX / CHUNK_SIZE, maxCx = visible.maxX / CHUNK_SIZE;
+        int minCy = visible.minY / CHUNK_SIZE, maxCy = visible.maxY / CHUNK_SIZE;
+
+        // Slots can't be redefined between begin and end, so settle them all first
+        visibleSlots.clear();
+        for (int cy = minCy; cy <= maxCy; cy++)
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int slot = slotFor(cx, cy);
+                if (slot < 0) continue;   // more chunks on screen than slots
+                if (dirty[slot]) rebuild(slot);
+                visibleSlots.add(slot);
+            }
+
+        // SpriteCache does not manage blending itself
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int n = 0; n < visibleSlots.size; n++)
+            cache.draw(cacheIds[visibleSlots.get(n)]);
+        cache.end();
+
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public int getRenderCalls() {
+        return cache.renderCalls;
+    }
+
+    // Slot holding chunk (cx, cy), taking over the least recently drawn one if it has none
+    private int slotFor(int cx, int cy) {
+        long key = LongByteMap.pack(cx, cy);
+        Integer cached = slots.get(key);
+        if (cached != null) {
+            slotDrawn[cached] = frame;
+            return cached;
+        }
+
+        int victim = -1;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (slotDrawn[slot] == frame) continue;
+            if (victim < 0 || slotDrawn[slot] < slotDrawn[victim]) victim = slot;
+        }
+        if (victim < 0) return -1;
+
+        if (slotChunk[victim] != NO_CHUNK) slots.remove(slotChunk[victim]);
+        slotChunk[victim] = key;
+        slotDrawn[victim] = frame;
+        slots.put(key, victim);
+        dirty[victim] = true;
+        return victim;
+    }
+
+    private void rebuild(int slot) {
+        long key = slotChunk[slot];
+        cache.beginCache(cacheIds[slot]);
+        addChunkSprites(LongByteMap.unpackX(key), LongByteMap.unpackY(key));
+        cache.endCache();
+        dirty[slot] = false;
+    }
+
+    private int addChunkSprites(int cx, int cy) {
+        int count = 0;
+        float size = tileSize * 0.9f;
+        float offset = (tileSize - size) / 2f;
+
+        for (int y = cy * CHUNK_SIZE; y < Math.min(gridHeight, (cy + 1) * CHUNK_SIZE); y++) {
+            for (int x = cx * CHUNK_SIZE; x < Math.min(gridWidth, (cx + 1) * CHUNK_SIZE); x++) {
+                float drawX = x * tileSize;
+                float drawY = y * tileSize;
+                int i = world.index(x, y);
+                int terrain = world.terrain(i);
+
+                if (terrain == 1) {
+                    cache.add(grass, drawX, drawY, tileSize, tileSize);
+                    count++;
+
+                    int d = world.decor(i);
+                    if (d > 0) {
+                        if (world.decorFlipped(i))
+                            cache.add(decor[d - 1], drawX + offset + size, drawY + offset, -size, size);
+                        else
+                            cache.add(decor[d - 1], drawX + offset, drawY + offset, size, size);
+                        count++;
+                    }
+
+                    int f = world.flower(i);
+                    if (f > 0) {
+                        if (world.flowerFlipped(i))
+                            cache.add(flowers[f - 1], drawX + offset + size, drawY + offset, -size, size);
+                        else
+                            cache.add(flowers[f - 1], drawX + offset, drawY + offset, size, size);
+                        count++;
+                    }
+                } else if (terrain == 2) {
+                    cache.add(sand, drawX, drawY, tileSize, tileSize);
+                    count++;
+                }
+
+                if (world.isTilled(i)) {
+                    cache.add(dirt, drawX, drawY, tileSize, tileSize);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public void dispose() {
+        cache.dispose();
+    }
+}
@@ -2,13 +2,10 @@ package io.github.example_name;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 public class UI {
 
@@ -19,7 +16,7 @@ public class UI {
     private final int labelOffsetY = 18;
 
     // --- Options Button ---
-    private Texture optionsTexture = new Texture(Gdx.files.internal("options.png"));
+    private final TextureRegion optionsTexture;   // from the world atlas
     private final int optionsSize = 48;   // icon size
     private boolean optionsOpen = false;
 
@@ -34,7 +31,9 @@ public class UI {
     private boolean closeRequested = false;
     private boolean musicMuted = false;     // ⬅ new
 
-    public UI() {}
+    public UI(TextureRegion optionsTexture) {
+        this.optionsTexture = optionsTexture;
+    }
 
     // Called after UI.draw() from Core to see if exit was requested
     public boolean pollCloseRequested() {
@@ -48,27 +47,19 @@ public class UI {
         return musicMuted;
     }
 
-    public void dispose() {
-        if (optionsTexture != null) optionsTexture.dispose();
-    }
-
     // --------------------------------------------------------------------------
     //  MAIN UI DRAW
+    //  Draws into Core's HUD pass (the batch is already begun in screen space)
     // --------------------------------------------------------------------------
-    public boolean draw(ShapeRenderer shapeRenderer,
-                        SpriteBatch batch,
+    public boolean draw(SpriteBatch batch,
                         BitmapFont font,
+                        HudContext hud,
                         float health, float maxHealth,
                         float hunger, float maxHunger) {
 
         int screenW = Gdx.graphics.getWidth();
         int screenH = Gdx.graphics.getHeight();
 
-        // projection
-        Matrix4 uiMatrix = new Matrix4().setToOrtho2D(0, 0, screenW, screenH);
-        shapeRenderer.setProjectionMatrix(uiMatrix);
-        batch.setProjectionMatrix(uiMatrix);
-
         float healthRatio = Math.min(1f, Math.max(0f, health / maxHealth));
         float hungerRatio = Math.min(1f, Math.max(0f, hunger / maxHunger));
 
@@ -80,44 +71,30 @@ public class UI {
         int hungerY = margin;
 
         // --- Draw health + hunger ---
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
         // health
-        shapeRenderer.setColor(0f, 0f, 0f, 0.4f);
-        shapeRenderer.rect(healthX, healthY, barWidth, barHeight);
-        shapeRenderer.setColor(Color.RED);
-        shapeRenderer.rect(healthX, healthY, barWidth * healthRatio, barHeight);
+        hud.rect(batch, healthX, healthY, barWidth, barHeight, 0f, 0f, 0f, 0.4f);
+        hud.rect(batch, healthX, healthY, barWidth * healthRatio, barHeight, Color.RED);
 
         // hunger
-        shapeRenderer.setColor(0f, 0f, 0f, 0.4f);
-        shapeRenderer.rect(hungerX, hungerY, barWidth, barHeight);
-        shapeRenderer.setColor(Color.ORANGE);
-        shapeRenderer.rect(hungerX, hungerY, barWidth * hungerRatio, barHeight);
-
-        shapeRenderer.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        hud.rect(batch, hungerX, hungerY, barWidth, barHeight, 0f, 0f, 0f, 0.4f);
+        hud.rect(batch, hungerX, hungerY, barWidth * hungerRatio, barHeight, Color.ORANGE);
 
         // labels
-        batch.begin();
         font.setColor(Color.WHITE);
         font.draw(batch, "HEALTH", healthX, healthY + barHeight + labelOffsetY);
         font.draw(batch, "HUNGER (E to eat)", hungerX, hungerY + barHeight + labelOffsetY);
-        batch.end();
 
         // --- Draw options icon ---
         drawOptionsIcon(batch);
 
         // If the options window is open — draw it
         if (optionsOpen) {
-            drawOptionsWindow(shapeRenderer, batch, font, screenW, screenH);
+            drawOptionsWindow(batch, font, hud, screenW, screenH);
         }
 
         // Death screen
         if (health <= 0) {
-            return drawDeathOverlay(shapeRenderer, batch, font, screenW, screenH);
+            return drawDeathOverlay(batch, font, hud, screenW, screenH);
         }
 
         return false;
@@ -127,13 +104,10 @@ public class UI {
     // OPTIONS ICON
     // --------------------------------------------------------------------------
     private void drawOptionsIcon(SpriteBatch batch) {
-        batch.begin();
-
         int x = Gdx.graphics.getWidth() - optionsSize - 16;
         int y = Gdx.graphics.getHeight() - optionsSize - 16;
 
         batch.draw(optionsTexture, x, y, optionsSize, optionsSize);
-        batch.end();
 
         // click detection
         if (Gdx.input.justTouched()) {
@@ -151,9 +125,9 @@ public class UI {
     // --------------------------------------------------------------------------
     // OPTIONS WINDOW ("Mute music" checkbox + Close / Cancel)
     // --------------------------------------------------------------------------
-    private void drawOptionsWindow(ShapeRenderer shapeRenderer,
-                                   SpriteBatch batch,
+    private void drawOptionsWindow(SpriteBatch batch,
                                    BitmapFont font,
+                                   HudContext hud,
                                    int screenW, int screenH) {
 
         int x = (screenW - windowWidth) / 2;
@@ -164,36 +138,22 @@ public class UI {
         int checkboxX = x + 24;
         int checkboxY = y + windowHeight - 80;   // a bit under the title
 
-        // fade background
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-
         // dark fade behind everything
-        shapeRenderer.setColor(0f, 0f, 0f, 0.35f);
-        shapeRenderer.rect(0, 0, screenW, screenH);
+        hud.rect(batch, 0, 0, screenW, screenH, 0f, 0f, 0f, 0.35f);
 
         // window panel
-        shapeRenderer.setColor(0.12f, 0.12f, 0.16f, 0.92f);
-        shapeRenderer.rect(x, y, windowWidth, windowHeight);
+        hud.rect(batch, x, y, windowWidth, windowHeight, 0.12f, 0.12f, 0.16f, 0.92f);
 
         // checkbox box
-        shapeRenderer.setColor(0f, 0f, 0f, 0.8f);
-        shapeRenderer.rect(checkboxX, checkboxY, checkboxSize, checkboxSize);
+        hud.rect(batch, checkboxX, checkboxY, checkboxSize, checkboxSize, 0f, 0f, 0f, 0.8f);
 
         // if checked, draw inner fill
         if (musicMuted) {
-            shapeRenderer.setColor(0.2f, 0.8f, 0.2f, 1f);
-            shapeRenderer.rect(checkboxX + 4, checkboxY + 4,
-                checkboxSize - 8, checkboxSize - 8);
+            hud.rect(batch, checkboxX + 4, checkboxY + 4,
+                checkboxSize - 8, checkboxSize - 8, 0.2f, 0.8f, 0.2f, 1f);
         }
 
-        shapeRenderer.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-
         // Title + checkbox label
-        batch.begin();
         font.setColor(Color.WHITE);
 
         font.getData().setScale(1.3f);
@@ -204,15 +164,14 @@ public class UI {
         font.draw(batch, "Mute music",
             checkboxX + checkboxSize + 8,
             checkboxY + checkboxSize - 4);
-        batch.end();
 
         // BUTTON POSITIONS (two buttons now)
         int btnX = x + (windowWidth - buttonWidth) / 2;
         int closeY  = y + 110;                          // top button
         int cancelY = closeY - buttonHeight - buttonSpacing; // second button
 
-        drawButton("Close Game", btnX, closeY,  shapeRenderer, batch, font);
-        drawButton("Cancel",     btnX, cancelY, shapeRenderer, batch, font);
+        drawButton("Close Game", btnX, closeY,  batch, font, hud);
+        drawButton("Cancel",     btnX, cancelY, batch, font, hud);
 
         // Click handling
         if (Gdx.input.justTouched()) {
@@ -241,67 +200,46 @@ public class UI {
     }
 
     private void drawButton(String text, int x, int y,
-                            ShapeRenderer shapeRenderer,
                             SpriteBatch batch,
-                            BitmapFont font) {
-
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+                            BitmapFont font,
+                            HudContext hud) {
 
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(0f, 0f, 0f, 0.8f);
-        shapeRenderer.rect(x, y, buttonWidth, buttonHeight);
-        shapeRenderer.setColor(1f, 1f, 1f, 0.12f);
-        shapeRenderer.rect(x, y + buttonHeight - 3, buttonWidth, 3);
-        shapeRenderer.end();
+        hud.rect(batch, x, y, buttonWidth, buttonHeight, 0f, 0f, 0f, 0.8f);
+        hud.rect(batch, x, y + buttonHeight - 3, buttonWidth, 3, 1f, 1f, 1f, 0.12f);
 
-        Gdx.gl.glDisable(GL20.GL_BLEND);
-
-        batch.begin();
-        GlyphLayout layout = new GlyphLayout(font, text);
+        GlyphLayout layout = hud.layout(font, text);
         float tx = x + (buttonWidth - layout.width) / 2;
         float ty = y + buttonHeight / 2 + layout.height / 2;
 
         font.setColor(Color.WHITE);
         font.draw(batch, text, tx, ty);
-        batch.end();
     }
 
     // --------------------------------------------------------------------------
     // DEATH OVERLAY
     // --------------------------------------------------------------------------
-    private boolean drawDeathOverlay(ShapeRenderer shapeRenderer,
-                                     SpriteBatch batch,
+    private boolean drawDeathOverlay(SpriteBatch batch,
                                      BitmapFont font,
+                                     HudContext hud,
                                      int screenW,
                                      int screenH) {
 
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        shapeRenderer.setColor(0.5f, 0f, 0f, 0.7f);
-        shapeRenderer.rect(0, 0, screenW, screenH);
-        shapeRenderer.end();
-
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        hud.rect(batch, 0, 0, screenW, screenH, 0.5f, 0f, 0f, 0.7f);
 
-        batch.begin();
         font.getData().setScale(2f);
         font.setColor(Color.WHITE);
-        GlyphLayout layout = new GlyphLayout(font, "You died!");
+        GlyphLayout layout = hud.layout(font, "You died!");
         font.draw(batch, layout,
             (screenW - layout.width) / 2f,
             screenH / 2f + 70f);
         font.getData().setScale(1f);
-        batch.end();
 
         int btnW = 240;
         int btnH = 55;
         int btnX = (screenW - btnW) / 2;
         int btnY = screenH / 2 - 20;
 
-        drawButton("Respawn", btnX, btnY, shapeRenderer, batch, font);
+        drawButton("Respawn", btnX, btnY, batch, font, hud);
 
         if (Gdx.input.justTouched()) {
             int mx = Gdx.input.getX();
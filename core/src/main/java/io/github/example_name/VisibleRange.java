@@ -0,0 +1,39 @@
+package io.github.example_name;
+
+/**
+ * Inclusive range of tile coordinates that are on screen.
+ *
+ * Core recomputes this once per frame from the camera, and the terrain,
+ * crop and structure passes only walk the cells inside it instead of the
+ * whole Island grid.
+ */
+public class VisibleRange {
+
+    // extra tiles around the viewport so large sprites (crops, fences) never pop at the edges
+    public static final int DEFAULT_MARGIN = 2;
+
+    public int minX, minY, maxX, maxY;
+
+    /**
+     * Updates the range from a camera centre and viewport size (in world units),
+     * clamped to a gridWidth x gridHeight tile grid.
+     */
+    public void set(float centerX, float centerY, float viewWidth, float viewHeight,
+                    int tileSize, int margin, int gridWidth, int gridHeight) {
+        float halfW = viewWidth / 2f;
+        float halfH = viewHeight / 2f;
+
+        minX = Math.max(0, (int) Math.floor((centerX - halfW) / tileSize) - margin);
+        minY = Math.max(0, (int) Math.floor((centerY - halfH) / tileSize) - margin);
+        maxX = Math.min(gridWidth - 1, (int) Math.floor((centerX + halfW) / tileSize) + margin);
+        maxY = Math.min(gridHeight - 1, (int) Math.floor((centerY + halfH) / tileSize) + margin);
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public boolean isEmpty() {
+        return maxX < minX || maxY < minY;
+    }
+}
@@ -1,13 +1,11 @@
 package io.github.example_name;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 /**
  * Handles the farmer's walking animation and current sprite frame.
  *
- * Assets used (must be in assets/):
+ * Frames come from the WorldAtlas, packed from these assets:
  *  - standstill.png
  *  - leftwalk1.png
  *  - rightwalk1.png
@@ -22,26 +20,28 @@ public class Walking {
         STAND, LEFT, RIGHT, UP, DOWN
     }
 
-    private final Texture standstill;
-    private final Texture leftwalk;
-    private final Texture rightwalk;
-    private final Texture walkdown1;
-    private final Texture walkdown2;
-    private final Texture walkup1;
-    private final Texture walkup2;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final TextureRegion standstill;
+    private final TextureRegion leftwalk;
+    private final TextureRegion rightwalk;
+    private final TextureRegion walkdown1;
+    private final TextureRegion walkdown2;
+    private final TextureRegion walkup1;
+    private final TextureRegion walkup2;
 
     private Direction currentDir = Direction.STAND;
     private float animTimer = 0f;
-    private Texture currentFrame;
+    private TextureRegion currentFrame;
 
-    public Walking() {
-        standstill = new Texture(Gdx.files.internal("standstill.png"));
-        leftwalk   = new Texture(Gdx.files.internal("leftwalk1.png"));
-        rightwalk  = new Texture(Gdx.files.internal("rightwalk1.png"));
-        walkdown1  = new Texture(Gdx.files.internal("walkdown1.png"));
-        walkdown2  = new Texture(Gdx.files.internal("walkdown2.png"));
-        walkup1    = new Texture(Gdx.files.internal("walkup1.png"));
-        walkup2    = new Texture(Gdx.files.internal("walkup2.png"));
+    public Walking(WorldAtlas atlas) {
+        standstill = atlas.get("standstill");
+        leftwalk   = atlas.get("leftwalk1");
+        rightwalk  = atlas.get("rightwalk1");
+        walkdown1  = atlas.get("walkdown1");
+        walkdown2  = atlas.get("walkdown2");
+        walkup1    = atlas.get("walkup1");
+        walkup2    = atlas.get("walkup2");
 
         currentFrame = standstill;
     }
@@ -80,41 +80,41 @@ public class Walking {
             animTimer += delta;
         }
 
-        switch (currentDir) {
+        currentFrame = frameFor(currentDir, animTimer);
+    }
+
+    private TextureRegion frameFor(Direction dir, float timer) {
+        switch (dir) {
             case LEFT:
-                currentFrame = leftwalk;
-                break;
+                return leftwalk;
 
             case RIGHT:
-                currentFrame = rightwalk;
-                break;
+                return rightwalk;
 
             case UP:
-                currentFrame = ((int)(animTimer / 0.5f) % 2 == 0) ? walkup1 : walkup2;
-                break;
+                return ((int)(timer / 0.5f) % 2 == 0) ? walkup1 : walkup2;
 
             case DOWN:
-                currentFrame = ((int)(animTimer / 0.5f) % 2 == 0) ? walkdown1 : walkdown2;
-                break;
+                return ((int)(timer / 0.5f) % 2 == 0) ? walkdown1 : walkdown2;
 
             case STAND:
             default:
-                currentFrame = standstill;
-                break;
+                return standstill;
         }
     }
 
-    public Texture getCurrentFrame() {
+    public TextureRegion getCurrentFrame() {
         return currentFrame;
     }
 
-    public void dispose() {
-        standstill.dispose();
-        leftwalk.dispose();
-        rightwalk.dispose();
-        walkdown1.dispose();
-        walkdown2.dispose();
-        walkup1.dispose();
-        walkup2.dispose();
+    /** Current direction as a small int, for sending over the network. */
+    public int getDirection() {
+        return currentDir.ordinal();
+    }
+
+    /** Frame for another player walking in {@code direction} for {@code animTime} seconds. */
+    public TextureRegion getFrame(int direction, float animTime) {
+        if (direction < 0 || direction >= DIRECTIONS.length) return standstill;
+        return frameFor(DIRECTIONS[direction], animTime);
     }
 }
@@ -0,0 +1,236 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * One TextureAtlas holding every world, item, fence, player and HUD sprite,
+ * plus the default font's glyph page and a 1x1 white region for flat
+ * rectangles, so the whole HUD can be drawn in one SpriteBatch pass without
+ * switching textures.
+ *
+ * The atlas is packed from the loose PNGs in assets/ on first launch and written
+ * to local storage (cache/), later launches load the cached page directly.
+ * Sprites are downscaled to at most MAX_SPRITE_SIZE on their longest side
+ * since nothing in the world is drawn bigger than that.
+ *
+ * The cache is keyed on a hash of the packing settings, the sprite list and
+ * each source PNG's size and modification time, stored next to it in a .key
+ * file; when the key doesn't match (a sprite was added, renamed or edited) the
+ * atlas is packed again. Bump VERSION when the packing code itself changes.
+ */
+public class WorldAtlas {
+
+    private static final int VERSION = 2;
+    private static final int PAGE_SIZE = 1024;
+    private static final int MAX_SPRITE_SIZE = 128;
+    private static final String CACHE_DIR = "cache/";
+    private static final String NAME = "world-v" + VERSION;
+
+    // libGDX's built-in font (what new BitmapFont() loads), packed unscaled
+    private static final String FONT_FILE = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String FONT_PAGE = "com/badlogic/gdx/utils/lsans-15.png";
+
+    // region name -> asset file
+    private static final String[][] SPRITES = {
+        { "grass", "grass.png" },
+        { "sand", "sand.png" },
+        { "dirt", "drytilleddirt.png" },
+        { "grass1", "grass1.png" },
+        { "grass2", "grass2.png" },
+        { "grass3", "grass3.png" },
+        { "flower1", "flower1.png" },
+        { "flower2", "flower2.png" },
+        { "flower3", "flower3.png" },
+        { "wheat", "wheat.png" },
+        { "carrot", "carrot.png" },
+        { "potato", "potato.png" },
+        { "blueberry", "blueberry.png" },
+        { "wheatseed", "wheatseed.png" },
+        { "carrotseed", "carrotseed.png" },
+        { "potatoseed", "potatoseed.png" },
+        { "blueberryseed", "blueberryseed.png" },
+        { "path", "Stone Path.png" },
+        { "hoe", "hoe.png" },
+        { "coin", "8bitCoinPNG.png" },
+        { "farmer", "farmer.png" },
+        { "standstill", "standstill.png" },
+        { "leftwalk1", "leftwalk1.png" },
+        { "rightwalk1", "rightwalk1.png" },
+        { "walkdown1", "walkdown1.png" },
+        { "walkdown2", "walkdown2.png" },
+        { "walkup1", "walkup1.png" },
+        { "walkup2", "walkup2.png" },
+        { "options", "options.png" },
+    };
+
+    private static final int FENCE_VARIANTS = 16;
+
+    private final TextureAtlas atlas;
+
+    public WorldAtlas() {
+        FileHandle packFile = null;
+        try {
+            packFile = Gdx.files.local(CACHE_DIR + NAME + ".atlas");
+        } catch (Exception e) {
+            // no local storage on this backend, pack in memory below
+        }
+
+        String key = cacheKey();
+        FileHandle keyFile = packFile == null ? null : packFile.sibling(NAME + ".key");
+
+        if (packFile != null && packFile.exists() && keyFile.exists() && key.equals(keyFile.readString())) {
+            atlas = new TextureAtlas(packFile);
+        } else {
+            PixmapPacker packer = pack();
+            TextureAtlas cached = null;
+            if (packFile != null) {
+                try {
+                    writeCache(packer, packFile);
+                    keyFile.writeString(key, false);
+                    cached = new TextureAtlas(packFile);
+                } catch (Exception e) {
+                    System.out.println("[WorldAtlas] Could not cache atlas: " + e.getMessage());
+                }
+            }
+            atlas = cached != null ? cached
+                : packer.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+            packer.dispose();
+        }
+    }
+
+    public TextureRegion get(String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) throw new GdxRuntimeException("Missing atlas region: " + name);
+        return region;
+    }
+
+    /** The 16 fence variants, indexed by their up/down/left/right connection bits. */
+    public TextureRegion[] getFences() {
+        TextureRegion[] fences = new TextureRegion[FENCE_VARIANTS];
+        for (int i = 0; i < FENCE_VARIANTS; i++) fences[i] = get("fence_" + i);
+        return fences;
+    }
+
+    /** 1x1 opaque white, tinted with the batch colour to draw filled rectangles. */
+    public TextureRegion getWhite() {
+        return get("white");
+    }
+
+    /** The default font, reading its glyphs from the atlas page. Caller disposes it. */
+    public BitmapFont newFont() {
+        return new BitmapFont(Gdx.files.classpath(FONT_FILE), get("font"));
+    }
+
+    public int getPageCount() {
+        return atlas.getTextures().size;
+    }
+
+    public void dispose() {
+        atlas.dispose();
+    }
+
+    // --------------------------------------------------------------------------
+    // PACKING
+    // --------------------------------------------------------------------------
+    private static PixmapPacker pack() {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, true);
+        for (String[] sprite : SPRITES) {
+            packSprite(packer, sprite[0], sprite[1]);
+        }
+        for (int i = 0; i < FENCE_VARIANTS; i++) {
+            packSprite(packer, "fence_" + i, "fence_" + i + ".png");
+        }
+
+        Pixmap white = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        white.setColor(1f, 1f, 1f, 1f);
+        white.fill();
+        packer.pack("white", white);
+        white.dispose();
+
+        // glyph coordinates in the .fnt are relative to the page, so it must not be scaled
+        Pixmap fontPage = new Pixmap(Gdx.files.classpath(FONT_PAGE));
+        packer.pack("font", fontPage);
+        fontPage.dispose();
+        return packer;
+    }
+
+    // Hash of everything the packed page depends on, see the class comment
+    private static String cacheKey() {
+        StringBuilder key = new StringBuilder();
+        key.append(VERSION).append(' ').append(PAGE_SIZE).append(' ').append(MAX_SPRITE_SIZE).append('\n');
+        for (String[] sprite : SPRITES) appendSource(key, sprite[0], Gdx.files.internal(sprite[1]));
+        for (int i = 0; i < FENCE_VARIANTS; i++) {
+            appendSource(key, "fence_" + i, Gdx.files.internal("fence_" + i + ".png"));
+        }
+        appendSource(key, "font", Gdx.files.classpath(FONT_PAGE));
+
+        CRC32 crc = new CRC32();
+        byte[] bytes = key.toString().getBytes(StandardCharsets.UTF_8);
+        crc.update(bytes, 0, bytes.length);
+        return Long.toHexString(crc.getValue()) + "-" + bytes.length;
+    }
+
+    private static void appendSource(StringBuilder key, String name, FileHandle file) {
+        key.append(name).append(' ').append(file.path()).append(' ')
+            .append(file.length()).append(' ').append(file.lastModified()).append('\n');
+    }
+
+    private static void packSprite(PixmapPacker packer, String name, String file) {
+        Pixmap source = new Pixmap(Gdx.files.internal(file));
+        int w = source.getWidth(), h = source.getHeight();
+        int longest = Math.max(w, h);
+
+        if (longest <= MAX_SPRITE_SIZE) {
+            packer.pack(name, source);
+            source.dispose();
+            return;
+        }
+
+        float scale = MAX_SPRITE_SIZE / (float) longest;
+        int dw = Math.max(1, Math.round(w * scale));
+        int dh = Math.max(1, Math.round(h * scale));
+        Pixmap scaled = new Pixmap(dw, dh, Pixmap.Format.RGBA8888);
+        scaled.setBlending(Pixmap.Blending.None);
+        scaled.setFilter(Pixmap.Filter.BiLinear);
+        scaled.drawPixmap(source, 0, 0, w, h, 0, 0, dw, dh);
+        packer.pack(name, scaled);
+        scaled.dispose();
+        source.dispose();
+    }
+
+    // Writes every packed page as a PNG plus a .atlas file TextureAtlas can load
+    private static void writeCache(PixmapPacker packer, FileHandle packFile) {
+        StringBuilder out = new StringBuilder();
+        int pageIndex = 0;
+        for (PixmapPacker.Page page : packer.getPages()) {
+            String pageName = NAME + (pageIndex++ == 0 ? "" : "_" + pageIndex) + ".png";
+            PixmapIO.writePNG(packFile.sibling(pageName), page.getPixmap());
+
+            out.append('\n').append(pageName).append('\n');
+            out.append("size:").append(PAGE_SIZE).append(',').append(PAGE_SIZE).append('\n');
+            out.append("format:RGBA8888\n");
+            out.append("filter:Nearest,Nearest\n");
+            out.append("repeat:none\n");
+            for (String name : page.getRects().keys()) {
+                Rectangle r = page.getRects().get(name);
+                out.append(name).append('\n');
+                out.append("bounds:").append((int) r.x).append(',').append((int) r.y).append(',')
+                    .append((int) r.width).append(',').append((int) r.height).append('\n');
+            }
+        }
+        packFile.writeString(out.toString(), false);
+    }
+}
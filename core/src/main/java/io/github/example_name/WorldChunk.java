@@ -0,0 +1,133 @@
+package io.github.example_name;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One SIZE x SIZE block of per-cell world state: the generated terrain and
+ * decor plus the farm layers (tilled soil, crops, regrow timers), each a flat
+ * array indexed by {@link #local(int, int)}.
+ *
+ * Chunks are created by ChunkStore, either generated from the world seed
+ * (Island.generateChunk) or read back from the page file. {@link #modified}
+ * is set on the first edit; unmodified chunks can always be regenerated, so
+ * only modified ones are paged out or saved.
+ */
+public class WorldChunk {
+
+    public static final int SHIFT = 5;
+    public static final int SIZE = 1 << SHIFT;          // 32, same as WorldSave.REGION_SIZE
+    public static final int MASK = SIZE - 1;
+    public static final int CELLS = SIZE * SIZE;
+
+    // flags, crop type, plant time, regrow due, terrain, decor | flip, flower | flip
+    public static final int BYTES = CELLS * (1 + 1 + 4 + 4 + 1 + 1 + 1);
+    private static final int FLIP_BIT = 0x80;
+
+    int cx, cy;
+    boolean modified;
+
+    final byte[] terrain = new byte[CELLS];        // 0=water, 1=grass, 2=sand
+    final byte[] decor = new byte[CELLS];          // grass decor (1-3)
+    final boolean[] decorFlip = new boolean[CELLS];
+    final byte[] flower = new byte[CELLS];         // flower decor (1-3)
+    final boolean[] flowerFlip = new boolean[CELLS];
+
+    final byte[] flags = new byte[CELLS];
+    final byte[] cropType = new byte[CELLS];       // 0 = no crop, otherwise CropType ordinal + 1
+    final float[] plantTime = new float[CELLS];
+    final float[] regrowDue = new float[CELLS];    // game time decor regrows, 0 = none
+
+    // ChunkStore's LRU list, most recently used first
+    WorldChunk newer, older;
+
+    /** Index of tile (x, y) inside its chunk; works for any x, y since only the low bits are used. */
+    public static int local(int x, int y) {
+        return ((y & MASK) << SHIFT) | (x & MASK);
+    }
+
+    public int getChunkX() {
+        return cx;
+    }
+
+    public int getChunkY() {
+        return cy;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /** Crop type ordinal at local cell c, or -1 if it has no crop. */
+    public int cropType(int c) {
+        return cropType[c] - 1;
+    }
+
+    /** 0..1 growth of the crop at local cell c, see WorldState#cropGrowth. */
+    public float cropGrowth(int c, float now) {
+        return Math.min(Math.max((now - plantTime[c]) / WorldState.CROP_GROW_TIME, 0f), 1f);
+    }
+
+    /** Clears every layer, ready to be generated or read into. */
+    void reset(int cx, int cy) {
+        this.cx = cx;
+        this.cy = cy;
+        modified = false;
+        Arrays.fill(terrain, (byte) 0);
+        Arrays.fill(decor, (byte) 0);
+        Arrays.fill(decorFlip, false);
+        Arrays.fill(flower, (byte) 0);
+        Arrays.fill(flowerFlip, false);
+        Arrays.fill(flags, (byte) 0);
+        Arrays.fill(cropType, (byte) 0);
+        Arrays.fill(plantTime, 0f);
+        Arrays.fill(regrowDue, 0f);
+    }
+
+    void copyFrom(WorldChunk src) {
+        cx = src.cx;
+        cy = src.cy;
+        modified = src.modified;
+        System.arraycopy(src.terrain, 0, terrain, 0, CELLS);
+        System.arraycopy(src.decor, 0, decor, 0, CELLS);
+        System.arraycopy(src.decorFlip, 0, decorFlip, 0, CELLS);
+        System.arraycopy(src.flower, 0, flower, 0, CELLS);
+        System.arraycopy(src.flowerFlip, 0, flowerFlip, 0, CELLS);
+        System.arraycopy(src.flags, 0, flags, 0, CELLS);
+        System.arraycopy(src.cropType, 0, cropType, 0, CELLS);
+        System.arraycopy(src.plantTime, 0, plantTime, 0, CELLS);
+        System.arraycopy(src.regrowDue, 0, regrowDue, 0, CELLS);
+    }
+
+    // --------------------------------------------------------------------------
+    // PAGING (one layer after the other, BYTES in total)
+    // --------------------------------------------------------------------------
+    void write(ByteBuffer out) {
+        out.put(flags);
+        out.put(cropType);
+        for (int c = 0; c < CELLS; c++) out.putFloat(plantTime[c]);
+        for (int c = 0; c < CELLS; c++) out.putFloat(regrowDue[c]);
+        out.put(terrain);
+        for (int c = 0; c < CELLS; c++) out.put((byte) (decor[c] | (decorFlip[c] ? FLIP_BIT : 0)));
+        for (int c = 0; c < CELLS; c++) out.put((byte) (flower[c] | (flowerFlip[c] ? FLIP_BIT : 0)));
+    }
+
+    void read(ByteBuffer in) {
+        in.get(flags);
+        in.get(cropType);
+        for (int c = 0; c < CELLS; c++) plantTime[c] = in.getFloat();
+        for (int c = 0; c < CELLS; c++) regrowDue[c] = in.getFloat();
+        in.get(terrain);
+        for (int c = 0; c < CELLS; c++) {
+            int d = in.get();
+            decor[c] = (byte) (d & ~FLIP_BIT);
+            decorFlip[c] = (d & FLIP_BIT) != 0;
+        }
+        for (int c = 0; c < CELLS; c++) {
+            int f = in.get();
+            flower[c] = (byte) (f & ~FLIP_BIT);
+            flowerFlip[c] = (f & FLIP_BIT) != 0;
+        }
+        modified = true;
+    }
+}
@@ -0,0 +1,276 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Host-side replication of the authoritative WorldState to clients.
+ *
+ * Every change to a replicated layer is appended to a change log tagged with the
+ * current tick (deduplicated per cell per tick). Each {@link #tick} sends every
+ * client that is behind one WORLD_DELTA made of the cells changed since the tick
+ * it last acknowledged, so the cost follows the number of changes rather than
+ * the map size.
+ *
+ * Clients only hear about cells inside their InterestGrid area. When the area
+ * moves, the regions it newly covers are sent in bulk (every land cell) in the
+ * next delta; the same catch-up is used when a client's ack has fallen out of
+ * the log.
+ *
+ * WORLD_DELTA payload (may be split over several frames, the last one has FLAG_LAST):
+ *   varint tick, varint base tick, byte flags, double clock, int cell count,
+ *   per cell: varint index, byte flags, byte crop (type + 1), [float plant time],
+ *             byte structure, byte decor | flip, byte flower | flip
+ *
+ * All methods run on the thread that owns the world (the GL thread).
+ */
+public class WorldReplicator implements WorldState.ChangeListener {
+
+    public interface Sender {
+        /** Takes ownership of a flipped frame from {@link Protocol#POOL}. */
+        void send(int clientId, ByteBuffer frame);
+    }
+
+    public interface CellListener {
+        void onCellReplicated(int cell);
+    }
+
+    public static final float TICK_INTERVAL = 0.1f;   // 10 deltas per second
+
+    private static final int LOG_CAPACITY = 8192;
+    private static final int FLAG_CATCH_UP = 1;
+    private static final int FLAG_LAST = 2;
+    private static final int FLIP_BIT = 0x80;
+    private static final int MAX_CELL_BYTES = 5 + 1 + 1 + 4 + 1 + 1 + 1;
+
+    // drift below this is left alone so the client clock doesn't jitter
+    private static final double CLOCK_SNAP = 0.25;
+
+    private final WorldState world;
+    // tick of each logged cell's latest change, absent = not in the log; sized by the log, not the map
+    private final IntIntMap lastChanged = new IntIntMap(LOG_CAPACITY);
+
+    // change log ring, ticks never decrease from oldest to newest
+    private final int[] logCells = new int[LOG_CAPACITY];
+    private final int[] logTicks = new int[LOG_CAPACITY];
+    private int logHead = 0, logSize = 0;
+    private int truncatedTick = 0;   // newest tick that fell out of the log
+
+    private int tick = 1;            // 0 means "nothing acknowledged yet"
+    private int latestChange = 0;
+
+    private static class Peer {
+        int acked = 0;
+        int sent = 0;
+        int resyncedAt = 0;
+        final IntArray pendingRegions = new IntArray();
+    }
+
+    private final IntMap<Peer> peers = new IntMap<>();
+    private final InterestGrid interest;
+
+    public WorldReplicator(WorldState world, InterestGrid interest) {
+        this.world = world;
+        this.interest = interest;
+    }
+
+    @Override
+    public void onCellChanged(int cell) {
+        if (lastChanged.get(cell, 0) == tick) return;
+        lastChanged.put(cell, tick);
+        latestChange = tick;
+
+        if (logSize == LOG_CAPACITY) {
+            truncatedTick = logTicks[logHead];
+            int dropped = logCells[logHead];
+            if (lastChanged.get(dropped, 0) == truncatedTick) lastChanged.remove(dropped, 0);
+            logHead = (logHead + 1) % LOG_CAPACITY;
+            logSize--;
+        }
+        int slot = (logHead + logSize) % LOG_CAPACITY;
+        logCells[slot] = cell;
+        logTicks[slot] = tick;
+        logSize++;
+    }
+
+    public void addClient(int clientId) {
+        peers.put(clientId, new Peer());
+    }
+
+    public void removeClient(int clientId) {
+        peers.remove(clientId);
+        interest.remove(clientId);
+    }
+
+    /** Moves a client's area of interest to its player's tile; newly covered regions get caught up. */
+    public void focus(int clientId, int tileX, int tileY) {
+        Peer p = peers.get(clientId);
+        if (p != null) interest.focus(clientId, tileX, tileY, p.pendingRegions);
+    }
+
+    public void acknowledge(int clientId, int ackTick) {
+        Peer p = peers.get(clientId);
+        if (p != null && ackTick > p.acked && ackTick <= tick) p.acked = ackTick;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getClientCount() {
+        return peers.size;
+    }
+
+    /** Sends whatever each client is missing, then starts the next tick. */
+    public void tick(double clock, Sender sender) {
+        for (IntMap.Entry<Peer> e : peers.entries()) {
+            Peer p = e.value;
+            InterestGrid.Area area = interest.area(e.key);
+            if (area == null || area.isEmpty()) continue;   // no position yet
+
+            // changes it never got have fallen out of the log: resend its whole area
+            if (p.acked < truncatedTick && p.resyncedAt < truncatedTick) {
+                p.pendingRegions.clear();
+                for (int ry = area.minY; ry <= area.maxY; ry++)
+                    for (int rx = area.minX; rx <= area.maxX; rx++)
+                        p.pendingRegions.add(ry * interest.regionsX + rx);
+                p.resyncedAt = tick;
+            }
+
+            boolean changes = latestChange > p.sent;
+            if (p.pendingRegions.size == 0 && !changes) continue;
+
+            int flags = p.pendingRegions.size > 0 ? FLAG_CATCH_UP : 0;
+            begin(p.acked, flags, clock);
+            for (int r = 0; r < p.pendingRegions.size; r++) {
+                writeRegion(e.key, p.pendingRegions.get(r), p.acked, flags, clock, sender);
+            }
+            p.pendingRegions.clear();
+            if (changes) writeChanges(e.key, area, p.acked, flags, clock, sender);
+            finish(e.key, sender);
+            p.sent = tick;
+        }
+        tick++;
+    }
+
+    // --------------------------------------------------------------------------
+    // ENCODING
+    // --------------------------------------------------------------------------
+
+    // a delta being written, split into frames as they fill up
+    private ByteBuffer frame;
+    private int frameStart, flagsPos, countPos, count;
+
+    private void writeChanges(int clientId, InterestGrid.Area area, int base, int flags, double clock, Sender sender) {
+        // newest to oldest until we reach what the client already has
+        for (int n = logSize - 1; n >= 0; n--) {
+            int slot = (logHead + n) % LOG_CAPACITY;
+            int t = logTicks[slot];
+            if (t <= base) break;
+            int cell = logCells[slot];
+            if (lastChanged.get(cell, 0) != t) continue;   // a newer entry for this cell was already written
+            if (!area.contains(world.x(cell) / InterestGrid.REGION_SIZE, world.y(cell) / InterestGrid.REGION_SIZE)) continue;
+            writeCell(clientId, cell, base, flags, clock, sender);
+        }
+    }
+
+    private void writeRegion(int clientId, int region, int base, int flags, double clock, Sender sender) {
+        int x0 = (region % interest.regionsX) * InterestGrid.REGION_SIZE;
+        int y0 = (region / interest.regionsX) * InterestGrid.REGION_SIZE;
+        int x1 = Math.min(world.width, x0 + InterestGrid.REGION_SIZE);
+        int y1 = Math.min(world.height, y0 + InterestGrid.REGION_SIZE);
+        for (int y = y0; y < y1; y++)
+            for (int x = x0; x < x1; x++) {
+                int cell = world.index(x, y);
+                if (world.terrain(cell) == 0 && world.structure(cell) == WorldState.STRUCTURE_NONE) continue;
+                writeCell(clientId, cell, base, flags, clock, sender);
+            }
+    }
+
+    private void begin(int base, int flags, double clock) {
+        frame = Protocol.POOL.acquire();
+        frameStart = Protocol.beginFrame(frame, Protocol.WORLD_DELTA);
+        Protocol.putVarInt(frame, tick);
+        Protocol.putVarInt(frame, base);
+        flagsPos = frame.position();
+        frame.put((byte) flags);
+        frame.putDouble(clock);
+        countPos = frame.position();
+        frame.putInt(0);
+        count = 0;
+    }
+
+    private void writeCell(int clientId, int cell, int base, int flags, double clock, Sender sender) {
+        if (frame.remaining() < MAX_CELL_BYTES) {
+            // frame is full: send it as a non-final part and continue in a new one
+            close();
+            sender.send(clientId, frame);
+            begin(base, flags, clock);
+        }
+
+        Protocol.putVarInt(frame, cell);
+        frame.put(world.isTilled(cell) ? WorldState.TILLED : 0);
+        int crop = world.cropType(cell) + 1;
+        frame.put((byte) crop);
+        if (crop != 0) frame.putFloat(world.plantTime(cell));
+        frame.put(world.structure(cell));
+        frame.put((byte) (world.decor(cell) | (world.decorFlipped(cell) ? FLIP_BIT : 0)));
+        frame.put((byte) (world.flower(cell) | (world.flowerFlipped(cell) ? FLIP_BIT : 0)));
+        count++;
+    }
+
+    private void finish(int clientId, Sender sender) {
+        frame.put(flagsPos, (byte) (frame.get(flagsPos) | FLAG_LAST));
+        close();
+        sender.send(clientId, frame);
+        frame = null;
+    }
+
+    private void close() {
+        frame.putInt(countPos, count);
+        Protocol.endFrame(frame, frameStart);
+        frame.flip();
+    }
+
+    // --------------------------------------------------------------------------
+    // CLIENT SIDE
+    // --------------------------------------------------------------------------
+
+    /**
+     * Applies one WORLD_DELTA frame to a client's copy of the world and syncs its
+     * clock. Returns the tick to acknowledge once the last frame of a delta has
+     * been applied, or -1 while more frames are expected.
+     */
+    public static int applyDelta(ByteBuffer payload, WorldState world, GameClock clock, CellListener listener)
+        throws IOException {
+        int deltaTick = Protocol.getVarInt(payload);
+        Protocol.getVarInt(payload);   // base tick, only informative on this side
+        int flags = Protocol.getByte(payload);
+        double hostClock = Protocol.getDouble(payload);
+        int cells = Protocol.getInt(payload);
+
+        if (Math.abs(clock.exact() - hostClock) > CLOCK_SNAP) clock.set(hostClock);
+
+        for (int n = 0; n < cells; n++) {
+            int cell = Protocol.getVarInt(payload);
+            if (cell < 0 || cell >= world.cellCount()) throw new IOException("Bad cell " + cell);
+
+            world.setTilled(cell, (Protocol.getByte(payload) & WorldState.TILLED) != 0);
+            int crop = Protocol.getByte(payload);
+            if (crop != 0) world.plantCrop(cell, crop - 1, Protocol.getFloat(payload));
+            else world.clearCrop(cell);
+            world.setStructure(cell, Protocol.getByte(payload));
+            int decor = Protocol.getByte(payload) & 0xFF;
+            world.setDecor(cell, decor & ~FLIP_BIT, (decor & FLIP_BIT) != 0);
+            int flower = Protocol.getByte(payload) & 0xFF;
+            world.setFlower(cell, flower & ~FLIP_BIT, (flower & FLIP_BIT) != 0);
+
+            if (listener != null) listener.onCellReplicated(cell);
+        }
+        return (flags & FLAG_LAST) != 0 ? deltaTick : -1;
+    }
+}
@@ -0,0 +1,389 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.LongArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Versioned binary world save. Written with sequential FileChannel writes to a
+ * temp file that is atomically moved over the old save, read region by region
+ * with positional FileChannel reads.
+ *
+ * Layout (big-endian):
+ *   header        HEADER_BYTES   magic, version, map size, region grid, clock, player, currency, seed
+ *   inventory     slots * SLOT_BYTES   item count + item name (length-prefixed UTF-8)
+ *   region table  regionsX * regionsY ints   file offset of each region, 0 = nothing stored
+ *   regions       REGION_BYTES each   REGION_SIZE x REGION_SIZE cells, one block per layer
+ *
+ * A region is one WorldChunk. Only chunks that were modified since they were
+ * generated are written (the rest come back from the seed). Loading reads
+ * only the small structure block of each region up front; the other layers
+ * of a region are read the first time its chunk is touched, so startup does
+ * not grow with the size of the save.
+ *
+ * Version 1 saves (from before the seeded chunk generator) are rejected:
+ * terrain is never stored, only regenerated, and the new generator puts land
+ * in different places, so their tilled soil, crops and fences would end up on
+ * other tiles or in the water. Callers move an unreadable save aside with
+ * {@link #setAside} rather than letting the next autosave overwrite it.
+ */
+public class WorldSave {
+
+    public static final int MAGIC = 0x53444C57; // "SDLW"
+    public static final int VERSION = 2;
+    public static final int REGION_SIZE = WorldChunk.SIZE;
+
+    private static final int HEADER_BYTES = 72;
+    private static final int MAX_ITEM_NAME = 30;
+    private static final int SLOT_BYTES = 4 + 2 + MAX_ITEM_NAME;
+
+    private static final int REGION_CELLS = REGION_SIZE * REGION_SIZE;
+    // flags, crop type, plant time, regrow due, structure, decor, flower
+    private static final int REGION_BYTES = REGION_CELLS * (1 + 1 + 4 + 4 + 1 + 1 + 1);
+
+    private static final int FLIP_BIT = 0x80;
+
+    /** Everything outside the tile grid that goes into a save. */
+    public static class Meta {
+        public double clock;
+        public float playerX, playerY;
+        public float health, hunger;
+        public int currency;
+        public final int[] inventory;
+        public final String[] inventoryItems;
+
+        public Meta(int slots) {
+            inventory = new int[slots];
+            inventoryItems = new String[slots];
+        }
+
+        public void copyFrom(Meta src) {
+            clock = src.clock;
+            playerX = src.playerX;
+            playerY = src.playerY;
+            health = src.health;
+            hunger = src.hunger;
+            currency = src.currency;
+            System.arraycopy(src.inventory, 0, inventory, 0, Math.min(inventory.length, src.inventory.length));
+            System.arraycopy(src.inventoryItems, 0, inventoryItems, 0, Math.min(inventoryItems.length, src.inventoryItems.length));
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // WRITE
+    // --------------------------------------------------------------------------
+    public static void write(File file, WorldState world, Meta meta) throws IOException {
+        int regionsX = (world.width + REGION_SIZE - 1) / REGION_SIZE;
+        int regionsY = (world.height + REGION_SIZE - 1) / REGION_SIZE;
+        int slots = meta.inventory.length;
+
+        int tableOffset = HEADER_BYTES + slots * SLOT_BYTES;
+        int dataOffset = tableOffset + regionsX * regionsY * 4;
+
+        // Only modified chunks inside the map are written; collect them before laying out the table
+        LongArray modified = new LongArray();
+        world.modifiedChunkKeys(modified);
+        boolean[] used = new boolean[regionsX * regionsY];
+        int usedCount = 0;
+        for (int k = 0; k < modified.size; k++) {
+            long key = modified.get(k);
+            int rx = LongByteMap.unpackX(key), ry = LongByteMap.unpackY(key);
+            if (rx < 0 || ry < 0 || rx >= regionsX || ry >= regionsY) continue;
+            used[ry * regionsX + rx] = true;
+            usedCount++;
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create save folder " + parent);
+        }
+
+        ByteBuffer head = ByteBuffer.allocate(dataOffset);
+        head.putInt(MAGIC);
+        head.putInt(VERSION);
+        head.putInt(world.width);
+        head.putInt(world.height);
+        head.putInt(REGION_SIZE);
+        head.putInt(regionsX);
+        head.putInt(regionsY);
+        head.putInt(slots);
+        head.putDouble(meta.clock);
+        head.putFloat(meta.playerX);
+        head.putFloat(meta.playerY);
+        head.putFloat(meta.health);
+        head.putFloat(meta.hunger);
+        head.putInt(meta.currency);
+        head.putLong(world.seed);
+
+        head.position(HEADER_BYTES);
+        for (int s = 0; s < slots; s++) {
+            writeSlot(head, meta.inventory[s], meta.inventoryItems[s]);
+        }
+
+        // regions follow the table back to back, in table order
+        int offset = dataOffset;
+        for (int r = 0; r < used.length; r++) {
+            head.putInt(tableOffset + r * 4, used[r] ? offset : 0);
+            if (used[r]) offset += REGION_BYTES;
+        }
+        head.clear();
+
+        // Write a temp file with plain channel writes (no mapping left holding it open) and
+        // atomically move it over the old save, so a crash mid-save leaves one whole world or the other
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, head);
+
+            ByteBuffer region = ByteBuffer.allocate(REGION_BYTES);
+            WorldChunk scratch = new WorldChunk();
+            for (int r = 0; r < used.length; r++) {
+                if (!used[r]) continue;
+                int rx = r % regionsX, ry = r / regionsX;
+                WorldChunk chunk = world.peekModifiedChunk(ChunkStore.key(rx, ry), scratch);
+                if (chunk == null) {
+                    scratch.reset(rx, ry);   // can't happen for a listed key, but keep the offsets valid
+                    chunk = scratch;
+                }
+                Arrays.fill(region.array(), (byte) 0);
+                region.clear();
+                writeRegion(region, world, chunk);
+                region.flip();
+                writeFully(channel, region);
+            }
+
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Renames a save that could not be loaded to "name.unreadable" so the next
+     * save doesn't overwrite it. Returns the new file, or null if it couldn't be moved.
+     */
+    public static File setAside(File file) {
+        File aside = new File(file.getPath() + ".unreadable");
+        try {
+            Files.move(file.toPath(), aside.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return aside;
+        } catch (IOException e) {
+            System.out.println("Could not move " + file + " aside: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static void writeSlot(ByteBuffer out, int count, String item) {
+        int start = out.position();
+        out.putInt(item == null ? 0 : count);
+        byte[] name = item == null ? new byte[0] : item.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(name.length, MAX_ITEM_NAME);
+        out.putShort((short) len);
+        out.put(name, 0, len);
+        out.position(start + SLOT_BYTES);
+    }
+
+    // Each layer is written as its own REGION_CELLS block; cells outside the map stay zero
+    private static void writeRegion(ByteBuffer out, WorldState world, WorldChunk chunk) {
+        int base = out.position();
+        int x0 = chunk.cx * REGION_SIZE, y0 = chunk.cy * REGION_SIZE;
+
+        for (int ly = 0; ly < REGION_SIZE; ly++) {
+            int y = y0 + ly;
+            if (y >= world.height) break;
+            for (int lx = 0; lx < REGION_SIZE; lx++) {
+                int x = x0 + lx;
+                if (x >= world.width) break;
+                int c = WorldChunk.local(lx, ly);
+
+                out.put(base + c, (byte) (chunk.flags[c] & WorldState.TILLED));
+                out.put(base + REGION_CELLS + c, chunk.cropType[c]);
+                out.putFloat(base + REGION_CELLS * 2 + c * 4, chunk.plantTime[c]);
+                out.putFloat(base + REGION_CELLS * 6 + c * 4, chunk.regrowDue[c]);
+                out.put(base + REGION_CELLS * 10 + c, world.structure(x, y));
+                out.put(base + REGION_CELLS * 11 + c,
+                    (byte) (chunk.decor[c] | (chunk.decorFlip[c] ? FLIP_BIT : 0)));
+                out.put(base + REGION_CELLS * 12 + c,
+                    (byte) (chunk.flower[c] | (chunk.flowerFlip[c] ? FLIP_BIT : 0)));
+            }
+        }
+        out.position(base + REGION_BYTES);
+    }
+
+    // --------------------------------------------------------------------------
+    // READ
+    // --------------------------------------------------------------------------
+
+    /**
+     * Opens a save for reading. The header, inventory and region table are
+     * read up front; regions are only read when asked for, with positional
+     * FileChannel reads, so a Reader can stay open while a world loads its
+     * chunks lazily (see ChunkStore) and may be used from several threads.
+     * No mapping is held, so the file can still be replaced by the next save.
+     */
+    public static class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer head;
+        private final int[] table;   // file offset of each region, 0 = not stored
+        public final int width, height, regionsX, regionsY;
+        public final long seed;
+        private final int slots;
+
+        public Reader(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < 8) throw new IOException("Not a world save: " + file);
+                ByteBuffer header = ByteBuffer.allocate((int) Math.min(size, HEADER_BYTES));
+                readFully(header, 0);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException("Not a world save: " + file);
+                }
+                int version = header.getInt(4);
+                if (version == 1) {
+                    throw new IOException("Save version 1 was made before the seeded island generator,"
+                        + " its farm would not line up with the new terrain");
+                }
+                if (version != VERSION) {
+                    throw new IOException("Unsupported save version " + version + " (expected " + VERSION + ")");
+                }
+                if (size < HEADER_BYTES) {
+                    throw new IOException("Truncated world save: " + file);
+                }
+                seed = header.getLong(60);
+                if (header.getInt(16) != REGION_SIZE) {
+                    throw new IOException("Unsupported region size " + header.getInt(16));
+                }
+                width = header.getInt(8);
+                height = header.getInt(12);
+                regionsX = header.getInt(20);
+                regionsY = header.getInt(24);
+                slots = header.getInt(28);
+
+                // header, inventory and table in one read
+                head = ByteBuffer.allocate(HEADER_BYTES + slots * SLOT_BYTES + regionsX * regionsY * 4);
+                readFully(head, 0);
+                table = new int[regionsX * regionsY];
+                int tableOffset = HEADER_BYTES + slots * SLOT_BYTES;
+                for (int r = 0; r < table.length; r++) table[r] = head.getInt(tableOffset + r * 4);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void readFully(ByteBuffer buffer, long position) throws IOException {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("World save truncated");
+            }
+            buffer.flip();
+        }
+
+        public void readMeta(Meta meta) {
+            meta.clock = head.getDouble(32);
+            meta.playerX = head.getFloat(40);
+            meta.playerY = head.getFloat(44);
+            meta.health = head.getFloat(48);
+            meta.hunger = head.getFloat(52);
+            meta.currency = head.getInt(56);
+
+            for (int s = 0; s < meta.inventory.length; s++) {
+                meta.inventory[s] = 0;
+                meta.inventoryItems[s] = null;
+                if (s >= slots) continue;
+
+                int pos = HEADER_BYTES + s * SLOT_BYTES;
+                int count = head.getInt(pos);
+                int len = head.getShort(pos + 4);
+                if (count <= 0 || len <= 0) continue;
+
+                byte[] name = new byte[len];
+                for (int b = 0; b < len; b++) name[b] = head.get(pos + 6 + b);
+                meta.inventory[s] = count;
+                meta.inventoryItems[s] = new String(name, StandardCharsets.UTF_8);
+            }
+        }
+
+        public boolean hasRegion(int rx, int ry) {
+            return rx >= 0 && ry >= 0 && rx < regionsX && ry < regionsY && table[ry * regionsX + rx] != 0;
+        }
+
+        /** A buffer big enough for one region, for {@link #readRegion} and {@link #readStructures}. */
+        public static ByteBuffer newRegionBuffer() {
+            return ByteBuffer.allocate(REGION_BYTES);
+        }
+
+        /**
+         * Copies the farm and decor layers of region (rx, ry) into {@code out}, the
+         * chunk at the same coordinates, and marks it modified. Terrain and cells
+         * outside the saved map are left as generated; structures are read
+         * separately with {@link #readStructures}. Returns false if nothing was stored.
+         */
+        public boolean readRegion(int rx, int ry, WorldChunk out, ByteBuffer buffer) throws IOException {
+            if (!hasRegion(rx, ry)) return false;
+            readFully(buffer, table[ry * regionsX + rx]);
+
+            int x0 = rx * REGION_SIZE, y0 = ry * REGION_SIZE;
+            for (int ly = 0; ly < REGION_SIZE && y0 + ly < height; ly++) {
+                for (int lx = 0; lx < REGION_SIZE && x0 + lx < width; lx++) {
+                    int c = WorldChunk.local(lx, ly);
+
+                    out.flags[c] = (byte) (buffer.get(c) & WorldState.TILLED);
+                    out.cropType[c] = buffer.get(REGION_CELLS + c);
+                    out.plantTime[c] = buffer.getFloat(REGION_CELLS * 2 + c * 4);
+                    out.regrowDue[c] = buffer.getFloat(REGION_CELLS * 6 + c * 4);
+
+                    int decor = buffer.get(REGION_CELLS * 11 + c);
+                    out.decor[c] = (byte) (decor & ~FLIP_BIT);
+                    out.decorFlip[c] = (decor & FLIP_BIT) != 0;
+                    int flower = buffer.get(REGION_CELLS * 12 + c);
+                    out.flower[c] = (byte) (flower & ~FLIP_BIT);
+                    out.flowerFlip[c] = (flower & FLIP_BIT) != 0;
+                }
+            }
+            out.modified = true;
+            return true;
+        }
+
+        /** Puts the structures of region (rx, ry) into {@code out}, keyed by LongByteMap.pack(x, y). */
+        public void readStructures(int rx, int ry, LongByteMap out, ByteBuffer buffer) throws IOException {
+            if (!hasRegion(rx, ry)) return;
+            buffer.clear();
+            buffer.limit(REGION_CELLS);
+            long position = table[ry * regionsX + rx] + REGION_CELLS * 10L;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("World save truncated");
+            }
+
+            int x0 = rx * REGION_SIZE, y0 = ry * REGION_SIZE;
+            for (int ly = 0; ly < REGION_SIZE && y0 + ly < height; ly++)
+                for (int lx = 0; lx < REGION_SIZE && x0 + lx < width; lx++) {
+                    byte structure = buffer.get(WorldChunk.local(lx, ly));
+                    if (structure != WorldState.STRUCTURE_NONE) out.put(LongByteMap.pack(x0 + lx, y0 + ly), structure);
+                }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The world rules that don't need a screen: game clock, decor regrowth, and
+ * (when hosting) validating client requests, replicating the world and
+ * relaying player positions.
+ *
+ * Core runs one of these inside the game window; the dedicated server runs one
+ * on its own tick loop. Network callbacks arrive on the Host's selector thread
+ * and are queued, then applied at the start of the next {@link #tick}, so the
+ * world is only ever touched from the thread that calls tick.
+ */
+public class WorldSimulation implements WorldState.ChangeListener {
+
+    /** Players seen through the Host, reported on the tick thread. */
+    public interface PlayerListener {
+        void onPlayerMoved(int playerId, float x, float y, int direction);
+
+        void onPlayerLeft(int playerId);
+    }
+
+    public static final float REGROW_TIME = 60f;
+
+    // the host's own avatar uses id 0, clients use their connection id
+    public static final int HOST_PLAYER_ID = 0;
+
+    private static final int CROP_TYPE_COUNT = CropType.values().length;
+
+    private final WorldState world;
+    private final int tileSize;
+    private final GameClock clock = new GameClock();
+    private final GrowthScheduler growth = new GrowthScheduler();
+    private final GrowthScheduler.Listener growthListener = this::onGrowthEvent;
+    private final ChunkStore.Visitor timerScheduler = this::scheduleTimers;
+    private final Random random = new Random();
+    private boolean regrowEnabled = true;
+
+    private WorldState.ChangeListener cellListener;
+
+    // hosting
+    private Host host;
+    private PlayerListener players;
+    private WorldReplicator replicator;
+    private InterestGrid interest;
+    private float replicateTimer = 0f;
+    private final ConcurrentLinkedQueue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+
+    public WorldSimulation(WorldState world, int tileSize) {
+        this.world = world;
+        this.tileSize = tileSize;
+        world.setChangeListener(this);
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
+    public WorldState getWorld() {
+        return world;
+    }
+
+    /** Extra listener for every world change, e.g. to mark terrain chunks dirty. */
+    public void setCellListener(WorldState.ChangeListener cellListener) {
+        this.cellListener = cellListener;
+    }
+
+    /** Joined clients don't run regrowth; the host does and replicates the result. */
+    public void setRegrowEnabled(boolean regrowEnabled) {
+        this.regrowEnabled = regrowEnabled;
+    }
+
+    @Override
+    public void onCellChanged(int cell) {
+        if (replicator != null) replicator.onCellChanged(cell);
+        if (cellListener != null) cellListener.onCellChanged(cell);
+    }
+
+    /** One fixed step: apply queued network requests, advance the clock, fire regrowth, replicate. */
+    public void tick(float dt) {
+        Runnable task;
+        while ((task = inbox.poll()) != null) task.run();
+
+        // Decor regrowth only fires when due; crops grow lazily off the clock
+        clock.advance(dt);
+        // chunks read lazily from the save bring their stored timers along
+        world.drainChunksFromSave(timerScheduler);
+        if (regrowEnabled) {
+            growth.advance(clock.now(), growthListener);
+        }
+
+        if (replicator != null) {
+            replicateTimer += dt;
+            if (replicateTimer >= WorldReplicator.TICK_INTERVAL) {
+                replicateTimer -= WorldReplicator.TICK_INTERVAL;
+                replicator.tick(clock.exact(), host::sendFrame);
+            }
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // REGROWTH
+    // --------------------------------------------------------------------------
+    public void startRegrow(int cell) {
+        if (!regrowEnabled) return;
+        world.setRegrowDue(cell, clock.now() + REGROW_TIME);
+        growth.schedule(world.regrowDue(cell), GrowthScheduler.REGROW, cell);
+    }
+
+    /** Puts the regrow timers stored in the world (e.g. after loading a save) back on the schedule. */
+    public void rescheduleRegrowth() {
+        growth.clear();
+        // timers only exist in modified chunks; ones still unread in the save come through tick
+        world.forEachModifiedChunk(timerScheduler);
+    }
+
+    private void scheduleTimers(WorldChunk chunk) {
+        if (!regrowEnabled) return;
+        int x0 = chunk.getChunkX() * WorldChunk.SIZE, y0 = chunk.getChunkY() * WorldChunk.SIZE;
+        for (int c = 0; c < WorldChunk.CELLS; c++) {
+            float due = chunk.regrowDue[c];
+            if (due <= 0f) continue;
+            int x = x0 + (c & WorldChunk.MASK), y = y0 + (c >> WorldChunk.SHIFT);
+            if (world.inBounds(x, y)) growth.schedule(due, GrowthScheduler.REGROW, world.index(x, y));
+        }
+    }
+
+    public int getPendingEvents() {
+        return growth.size();
+    }
+
+    private void onGrowthEvent(int kind, int cell, float dueTime) {
+        // a restarted timer leaves a stale earlier event behind
+        if (world.regrowDue(cell) != dueTime) return;
+        world.setRegrowDue(cell, 0f);
+
+        // setDecor and setFlower report the change themselves (replication and redraw)
+        double chance = random.nextDouble();
+        if (chance < 0.1) {
+            world.setDecor(cell, random.nextInt(3) + 1, random.nextBoolean());
+        } else if (chance < 0.15) {
+            world.setFlower(cell, random.nextInt(3) + 1, random.nextBoolean());
+        } else if (cellListener != null) {
+            // nothing grew back; the timer isn't replicated, only the local terrain is redrawn
+            cellListener.onCellChanged(cell);
+        }
+    }
+
+    // --------------------------------------------------------------------------
+    // HOSTING
+    // --------------------------------------------------------------------------
+
+    /** Makes this world the authoritative one for {@code host}'s clients. */
+    public void attachHost(Host host, PlayerListener players) {
+        this.host = host;
+        this.players = players;
+        interest = new InterestGrid(world.width, world.height);
+        replicator = new WorldReplicator(world, interest);
+
+        host.setFrameListener(new Host.FrameListener() {
+            @Override
+            public void onFrame(int clientId, int type, ByteBuffer payload) throws IOException {
+                onHostFrame(clientId, type, payload);
+            }
+
+            @Override
+            public void onClientConnected(int clientId) {
+                inbox.add(() -> replicator.addClient(clientId));
+            }
+
+            @Override
+            public void onClientDisconnected(int clientId) {
+                inbox.add(() -> {
+                    replicator.removeClient(clientId);
+                    if (WorldSimulation.this.players != null) WorldSimulation.this.players.onPlayerLeft(clientId);
+                });
+                ByteBuffer frame = Protocol.POOL.acquire();
+                Protocol.writePlayerLeft(frame, clientId);
+                frame.flip();
+                host.broadcastFrameExcept(clientId, frame);
+            }
+        });
+    }
+
+    public boolean isHosting() {
+        return host != null;
+    }
+
+    public int getClientCount() {
+        return replicator == null ? 0 : replicator.getClientCount();
+    }
+
+    // network thread: decode the request, then apply it on the tick thread
+    private void onHostFrame(int clientId, int type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case Protocol.TILE_CHANGE: {
+                int x = Protocol.getVarInt(payload), y = Protocol.getVarInt(payload);
+                int layer = Protocol.getVarInt(payload), value = Protocol.getSignedVarInt(payload);
+                inbox.add(() -> applyTileRequest(x, y, layer, value));
+                break;
+            }
+            case Protocol.CROP_EVENT: {
+                int x = Protocol.getVarInt(payload), y = Protocol.getVarInt(payload);
+                int event = Protocol.getVarInt(payload), crop = Protocol.getSignedVarInt(payload);
+                inbox.add(() -> applyCropRequest(x, y, event, crop));
+                break;
+            }
+            case Protocol.DELTA_ACK: {
+                int tick = Protocol.getVarInt(payload);
+                inbox.add(() -> replicator.acknowledge(clientId, tick));
+                break;
+            }
+            case Protocol.PLAYER_POSITION: {
+                Protocol.getVarInt(payload);   // Protocol.SELF_PLAYER_ID, the connection says who it is
+                float x = Protocol.getFloat(payload), y = Protocol.getFloat(payload);
+                int dir = Protocol.getVarInt(payload);
+                inbox.add(() -> onClientPosition(clientId, x, y, dir));
+                break;
+            }
+        }
+    }
+
+    private void onClientPosition(int clientId, float x, float y, int dir) {
+        if (players != null) players.onPlayerMoved(clientId, x, y, dir);
+        // the client's camera follows its player, so that's where its area of interest goes
+        replicator.focus(clientId, (int) (x / tileSize), (int) (y / tileSize));
+        relayPosition(clientId, x, y, dir);
+    }
+
+    /**
+     * Passes a player's position on to the clients whose area of interest
+     * covers it, and tells the ones it just left to drop the avatar.
+     */
+    public void relayPosition(int playerId, float x, float y, int dir) {
+        if (host == null) return;
+        int tx = (int) (x / tileSize), ty = (int) (y / tileSize);
+        IntMap.Keys targets = interest.clients();
+        while (targets.hasNext) {
+            int target = targets.next();
+            if (target == playerId) continue;
+
+            boolean visible = interest.contains(target, tx, ty);
+            int change = interest.updateVisibility(target, playerId, visible);
+            ByteBuffer frame;
+            if (visible) {
+                frame = Protocol.POOL.acquire();
+                Protocol.writePlayerPosition(frame, playerId, x, y, dir);
+            } else if (change < 0) {
+                frame = Protocol.POOL.acquire();
+                Protocol.writePlayerLeft(frame, playerId);
+            } else {
+                continue;
+            }
+            frame.flip();
+            host.sendFrame(target, frame);
+        }
+    }
+
+    /** Validates a client's tile change against the real world before applying it. */
+    void applyTileRequest(int x, int y, int layer, int value) {
+        if (!world.inBounds(x, y)) return;
+        int i = world.index(x, y);
+        boolean applied = false;
+        byte structure = world.structure(i);
+
+        if (layer == Protocol.LAYER_TILLED) {
+            if (value != 0 && world.terrain(i) == 1 && !world.isTilled(i)
+                && structure == WorldState.STRUCTURE_NONE) {
+                world.setTilled(i, true);
+                world.clearDecor(i);
+                applied = true;
+            } else if (value == 0 && world.isTilled(i) && !world.hasCrop(i)) {
+                world.setTilled(i, false);
+                startRegrow(i);
+                applied = true;
+            }
+        } else if (layer == Protocol.LAYER_STRUCTURE) {
+            if (value == WorldState.STRUCTURE_NONE) {
+                if (structure != WorldState.STRUCTURE_NONE) world.setStructure(i, WorldState.STRUCTURE_NONE);
+                applied = true;
+            } else if ((value == WorldState.STRUCTURE_FENCE || value == WorldState.STRUCTURE_PATH)
+                && world.terrain(i) != 0 && !world.hasCrop(i) && !world.isTilled(i)
+                && structure == WorldState.STRUCTURE_NONE) {
+                world.setStructure(i, (byte) value);
+                applied = true;
+            }
+        }
+
+        // resend the real state so the client drops its prediction
+        if (!applied && replicator != null) replicator.onCellChanged(i);
+    }
+
+    void applyCropRequest(int x, int y, int event, int crop) {
+        if (!world.inBounds(x, y)) return;
+        int i = world.index(x, y);
+        boolean applied = false;
+
+        if (event == Protocol.CROP_PLANTED && crop >= 0 && crop < CROP_TYPE_COUNT
+            && world.isTilled(i) && !world.hasCrop(i)
+            && world.structure(i) != WorldState.STRUCTURE_PATH) {
+            world.plantCrop(i, crop, clock.now());
+            applied = true;
+        } else if (event == Protocol.CROP_HARVESTED && world.isCropRipe(i, clock.now())) {
+            world.clearCrop(i);
+            applied = true;
+        }
+
+        if (!applied && replicator != null) replicator.onCellChanged(i);
+    }
+
+    // --------------------------------------------------------------------------
+    // SAVE / LOAD
+    // --------------------------------------------------------------------------
+
+    /**
+     * Restores the clock and structures from a save and attaches it to the world,
+     * which reads the other layers of each region the first time its chunk is
+     * touched. The world owns {@code reader} from then on and closes it when
+     * disposed; the caller only closes it if this throws.
+     */
+    public void load(WorldSave.Reader reader, WorldSave.Meta meta) throws IOException {
+        reader.readMeta(meta);
+        if (reader.seed != world.seed) {
+            System.out.println("Save was made with seed " + reader.seed + ", untouched land comes from seed " + world.seed);
+        }
+        world.attachSave(reader);
+        clock.set(meta.clock);
+        rescheduleRegrowth();
+    }
+}
@@ -0,0 +1,367 @@
+package io.github.example_name;
+
+import com.badlogic.gdx.utils.LongArray;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Per-cell world state, addressed by cell index y * width + x.
+ *
+ * Cells live in WorldChunks held by a {@link ChunkStore}: terrain and decor
+ * are generated from the seed the first time a chunk is touched, the farm
+ * layers (tilled soil, crop type and planting time, decor regrow timers) are
+ * stored beside them, and chunks far from every player are dropped or paged
+ * to disk. Heap use follows the chunks in use, not width * height, so the
+ * world can be thousands of tiles per side. The sparse FenceAndPath structure
+ * layer is kept separately in a LongByteMap.
+ *
+ * Accessors keep the chunk of the previous call, so walking neighbouring
+ * cells costs an array index, not a lookup. Planting and harvesting only
+ * write bytes and floats, nothing is allocated per crop.
+ */
+public class WorldState {
+
+    // tile flag bits
+    public static final byte TILLED = 1;
+
+    // seconds from planting until a crop can be harvested
+    public static final float CROP_GROW_TIME = 20f;
+
+    // structure layer values (see FenceAndPath.Tile)
+    public static final byte STRUCTURE_NONE = 0;
+    public static final byte STRUCTURE_FENCE = 1;
+    public static final byte STRUCTURE_PATH = 2;
+
+    // crop type byte: 0 = no crop, otherwise CropType ordinal + 1
+    public static final byte NO_CROP = 0;
+
+    /** Told about every change to a replicated layer (everything but regrow timers). */
+    public interface ChangeListener {
+        void onCellChanged(int cell);
+    }
+
+    public final int width, height;
+    public final long seed;
+    public final int shoreRadius;
+    private ChangeListener changeListener;
+
+    private final ChunkStore chunks;
+    private WorldChunk cur;   // chunk of the last locate()
+
+    // structures cover a tiny share of the map, so they are kept sparse, keyed by LongByteMap.pack(x, y)
+    private final LongByteMap structures = new LongByteMap();
+
+    public WorldState(int width, int height) {
+        this(width, height, Island.DEFAULT_SEED);
+    }
+
+    public WorldState(int width, int height, long seed) {
+        this(width, height, seed, ChunkStore.DEFAULT_MAX_RESIDENT);
+    }
+
+    /** A world generated from {@code seed}, keeping at most {@code maxResident} chunks on the heap. */
+    public WorldState(int width, int height, long seed, int maxResident) {
+        this(width, height, seed, Island.DEFAULT_SHORE_RADIUS, maxResident);
+    }
+
+    /** Same, with sand up to {@code shoreRadius} tiles from land (see Island#generateChunk). */
+    public WorldState(int width, int height, long seed, int shoreRadius, int maxResident) {
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+        this.shoreRadius = shoreRadius;
+        chunks = new ChunkStore(seed, shoreRadius, maxResident);
+    }
+
+    /**
+     * Makes this world a read-only snapshot of {@code src} (see ChunkStore#copyFrom):
+     * only its modified chunks and structures are copied. Both must be the same size
+     * and seed. Call {@link #releaseSnapshot} once the snapshot has been written.
+     */
+    public void copyFrom(WorldState src) {
+        if (src.width != width || src.height != height || src.seed != seed) {
+            throw new IllegalArgumentException("World size or seed mismatch");
+        }
+        chunks.copyFrom(src.chunks);
+        cur = null;
+        structures.copyFrom(src.structures);
+    }
+
+    public void releaseSnapshot() {
+        chunks.releaseSnapshot();
+    }
+
+    /**
+     * Loads a save into this (freshly generated) world. Structures are read
+     * now; the other layers of each region are read from {@code reader} the
+     * first time its chunk is touched, so the world keeps the reader open and
+     * closes it in {@link #dispose}.
+     */
+    public void attachSave(WorldSave.Reader reader) throws IOException {
+        chunks.attachSave(reader);
+        structures.clear();
+        LongByteMap saved = new LongByteMap();
+        ByteBuffer buffer = WorldSave.Reader.newRegionBuffer();
+        int regionsX = Math.min(reader.regionsX, chunksX()), regionsY = Math.min(reader.regionsY, chunksY());
+        for (int ry = 0; ry < regionsY; ry++)
+            for (int rx = 0; rx < regionsX; rx++) {
+                if (!reader.hasRegion(rx, ry)) continue;
+                reader.readStructures(rx, ry, saved, buffer);
+                chunks.addSavedRegion(rx, ry);
+            }
+        // the save may be bigger than this world
+        for (int slot = saved.nextSlot(0); slot >= 0; slot = saved.nextSlot(slot + 1)) {
+            long key = saved.keyAt(slot);
+            if (inBounds(LongByteMap.unpackX(key), LongByteMap.unpackY(key))) structures.put(key, saved.valueAt(slot));
+        }
+        cur = null;
+    }
+
+    /** Calls {@code visitor} for each chunk read from the save since the last call. */
+    public void drainChunksFromSave(ChunkStore.Visitor visitor) {
+        chunks.drainLoadedFromSave(visitor);
+    }
+
+    /** Closes the page file and the attached save. */
+    public void dispose() {
+        chunks.dispose();
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void changed(int i) {
+        if (changeListener != null) changeListener.onCellChanged(i);
+    }
+
+    public int index(int x, int y) {
+        return y * width + x;
+    }
+
+    public int x(int index) {
+        return index % width;
+    }
+
+    public int y(int index) {
+        return index / width;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public int cellCount() {
+        return width * height;
+    }
+
+    // Points cur at the chunk holding cell i and returns the cell's index inside it
+    private int locate(int i) {
+        int x = i % width, y = i / width;
+        cur = chunks.get(x >> WorldChunk.SHIFT, y >> WorldChunk.SHIFT);
+        return WorldChunk.local(x, y);
+    }
+
+    // --------------------------------------------------------------------------
+    // CHUNKS
+    // --------------------------------------------------------------------------
+
+    /** The chunk at chunk coordinates (cx, cy), generated or paged in if needed. */
+    public WorldChunk chunkAt(int cx, int cy) {
+        return chunks.get(cx, cy);
+    }
+
+    /**
+     * Generates the chunks covering tiles [minX, maxX] x [minY, maxY] (clamped
+     * to the map) in parallel, so they don't get generated one by one on first
+     * touch. Cheap when they are already resident.
+     */
+    public void prefetch(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(0, minX);
+        minY = Math.max(0, minY);
+        maxX = Math.min(width - 1, maxX);
+        maxY = Math.min(height - 1, maxY);
+        if (minX > maxX || minY > maxY) return;
+        chunks.prefetch(minX >> WorldChunk.SHIFT, minY >> WorldChunk.SHIFT,
+            maxX >> WorldChunk.SHIFT, maxY >> WorldChunk.SHIFT);
+    }
+
+    /** Number of chunks across, enough to cover the width. */
+    public int chunksX() {
+        return (width + WorldChunk.SIZE - 1) >> WorldChunk.SHIFT;
+    }
+
+    public int chunksY() {
+        return (height + WorldChunk.SIZE - 1) >> WorldChunk.SHIFT;
+    }
+
+    /** Calls {@code visitor} for every chunk that differs from what the seed generates. */
+    public void forEachModifiedChunk(ChunkStore.Visitor visitor) {
+        chunks.forEachModified(visitor);
+    }
+
+    void modifiedChunkKeys(LongArray out) {
+        chunks.modifiedKeys(out);
+    }
+
+    WorldChunk peekModifiedChunk(long key, WorldChunk scratch) {
+        return chunks.peekModified(key, scratch);
+    }
+
+    public int getResidentChunks() {
+        return chunks.getResidentCount();
+    }
+
+    public int getPagedChunks() {
+        return chunks.getPagedCount();
+    }
+
+    // --------------------------------------------------------------------------
+    // TERRAIN / DECOR (generated by Island from the seed)
+    // --------------------------------------------------------------------------
+    public int terrain(int i) {
+        int c = locate(i);
+        return cur.terrain[c];
+    }
+
+    public int decor(int i) {
+        int c = locate(i);
+        return cur.decor[c];
+    }
+
+    public boolean decorFlipped(int i) {
+        int c = locate(i);
+        return cur.decorFlip[c];
+    }
+
+    public int flower(int i) {
+        int c = locate(i);
+        return cur.flower[c];
+    }
+
+    public boolean flowerFlipped(int i) {
+        int c = locate(i);
+        return cur.flowerFlip[c];
+    }
+
+    public void setDecor(int i, int decor, boolean flip) {
+        int c = locate(i);
+        cur.decor[c] = (byte) decor;
+        cur.decorFlip[c] = flip;
+        cur.modified = true;
+        changed(i);
+    }
+
+    public void setFlower(int i, int flower, boolean flip) {
+        int c = locate(i);
+        cur.flower[c] = (byte) flower;
+        cur.flowerFlip[c] = flip;
+        cur.modified = true;
+        changed(i);
+    }
+
+    public void clearDecor(int i) {
+        int c = locate(i);
+        cur.decor[c] = 0;
+        cur.flower[c] = 0;
+        cur.modified = true;
+        changed(i);
+    }
+
+    // --------------------------------------------------------------------------
+    // FARM
+    // --------------------------------------------------------------------------
+    public boolean isTilled(int i) {
+        int c = locate(i);
+        return (cur.flags[c] & TILLED) != 0;
+    }
+
+    public void setTilled(int i, boolean tilled) {
+        int c = locate(i);
+        if (tilled) cur.flags[c] |= TILLED;
+        else cur.flags[c] &= ~TILLED;
+        cur.modified = true;
+        changed(i);
+    }
+
+    public boolean hasCrop(int i) {
+        int c = locate(i);
+        return cur.cropType[c] != NO_CROP;
+    }
+
+    /** Crop type ordinal, or -1 if the cell has no crop. */
+    public int cropType(int i) {
+        int c = locate(i);
+        return cur.cropType[c] - 1;
+    }
+
+    public float plantTime(int i) {
+        int c = locate(i);
+        return cur.plantTime[c];
+    }
+
+    // Growth is never stepped: it is computed from the planting time whenever
+    // a crop is drawn or clicked, so off-screen crops cost nothing per frame.
+
+    /** 0..1 growth of the crop at cell i at game time {@code now}. */
+    public float cropGrowth(int i, float now) {
+        return Math.min(Math.max((now - plantTime(i)) / CROP_GROW_TIME, 0f), 1f);
+    }
+
+    public boolean isCropRipe(int i, float now) {
+        int c = locate(i);
+        return cur.cropType[c] != NO_CROP && now - cur.plantTime[c] >= CROP_GROW_TIME;
+    }
+
+    public void plantCrop(int i, int typeOrdinal, float now) {
+        int c = locate(i);
+        cur.cropType[c] = (byte) (typeOrdinal + 1);
+        cur.plantTime[c] = now;
+        cur.modified = true;
+        changed(i);
+    }
+
+    public void clearCrop(int i) {
+        int c = locate(i);
+        cur.cropType[c] = NO_CROP;
+        cur.plantTime[c] = 0f;
+        cur.modified = true;
+        changed(i);
+    }
+
+    public float regrowDue(int i) {
+        int c = locate(i);
+        return cur.regrowDue[c];
+    }
+
+    public void setRegrowDue(int i, float due) {
+        int c = locate(i);
+        cur.regrowDue[c] = due;
+        cur.modified = true;
+    }
+
+    // --------------------------------------------------------------------------
+    // STRUCTURES (FenceAndPath)
+    // --------------------------------------------------------------------------
+    public byte structure(int i) {
+        return structures.get(LongByteMap.pack(x(i), y(i)));
+    }
+
+    /** Same as {@code structure(index(x, y))} without the index round trip. */
+    public byte structure(int x, int y) {
+        return structures.get(LongByteMap.pack(x, y));
+    }
+
+    public void setStructure(int i, byte value) {
+        structures.put(LongByteMap.pack(x(i), y(i)), value);
+        locate(i);
+        cur.modified = true;   // so saves include the chunk
+        changed(i);
+    }
+
+    /** Every non-empty structure cell; iterate it by slot (see LongByteMap), don't modify it. */
+    public LongByteMap getStructures() {
+        return structures;
+    }
+}
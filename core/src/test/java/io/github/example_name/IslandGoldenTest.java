@@ -0,0 +1,75 @@
+package io.github.example_name;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks Island#generateChunk against island-golden.txt: terrain, decor and
+ * flowers for a few seeds and shore radii 0 to 6, recorded from the per-tile
+ * neighbour scan the distance transform replaced. Any change to land, the
+ * sand border or decor placement shows up here.
+ */
+public class IslandGoldenTest {
+
+    private static final int MIN_CX = -3, MAX_CX = 8, MIN_CY = -3, MAX_CY = 7;
+    private static final int FLIP_BIT = 0x80;
+
+    @Test
+    public void generatorMatchesGolden() throws IOException {
+        int cases = 0;
+        InputStream in = IslandGoldenTest.class.getResourceAsStream("/island-golden.txt");
+        assertNotNull("island-golden.txt missing", in);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] f = line.split("\\s+");
+                long seed = Long.parseLong(f[0]);
+                int radius = Integer.parseInt(f[1]);
+                check(seed, radius, Long.parseLong(f[2], 16),
+                    Integer.parseInt(f[3]), Integer.parseInt(f[4]), Integer.parseInt(f[5]), Integer.parseInt(f[6]));
+                cases++;
+            }
+        }
+        assertTrue("no golden cases", cases > 0);
+    }
+
+    private static void check(long seed, int radius, long crc32, int land, int sand, int decor, int flower) {
+        CRC32 crc = new CRC32();
+        int[] counts = new int[4];
+        WorldChunk chunk = new WorldChunk();
+        for (int cy = MIN_CY; cy <= MAX_CY; cy++)
+            for (int cx = MIN_CX; cx <= MAX_CX; cx++) {
+                chunk.reset(cx, cy);
+                Island.generateChunk(seed, radius, chunk);
+                for (int c = 0; c < WorldChunk.CELLS; c++) {
+                    crc.update(chunk.terrain[c]);
+                    crc.update(chunk.decor[c] | (chunk.decorFlip[c] ? FLIP_BIT : 0));
+                    crc.update(chunk.flower[c] | (chunk.flowerFlip[c] ? FLIP_BIT : 0));
+                    if (chunk.terrain[c] == 1) counts[0]++;
+                    if (chunk.terrain[c] == 2) counts[1]++;
+                    if (chunk.decor[c] != 0) counts[2]++;
+                    if (chunk.flower[c] != 0) counts[3]++;
+                }
+            }
+
+        String where = "seed " + seed + ", radius " + radius;
+        assertEquals("land tiles, " + where, land, counts[0]);
+        assertEquals("sand tiles, " + where, sand, counts[1]);
+        assertEquals("decor tiles, " + where, decor, counts[2]);
+        assertEquals("flower tiles, " + where, flower, counts[3]);
+        assertEquals("tile data checksum, " + where, crc32, crc.getValue());
+    }
+}
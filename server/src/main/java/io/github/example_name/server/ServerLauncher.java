@@ -0,0 +1,202 @@
+package io.github.example_name.server;
+
+import io.github.example_name.AutoSaver;
+import io.github.example_name.FixedStep;
+import io.github.example_name.Host;
+import io.github.example_name.Island;
+import io.github.example_name.WorldSave;
+import io.github.example_name.WorldSimulation;
+import io.github.example_name.WorldState;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Headless dedicated server: the host's world, regrowth and networking with no
+ * window, GL context or LWJGL. Clients join it exactly like a hosted game.
+ *
+ * Usage: server [port] [save file] [metrics csv]
+ *
+ * The world ticks at FixedStep.DEFAULT_RATE. Every METRICS_INTERVAL seconds it
+ * prints the average and worst tick time, heap in use and connected clients,
+ * and appends the same line to the metrics file if one was given.
+ */
+public class ServerLauncher {
+
+    private static final int DEFAULT_PORT = 5000;
+    private static final String DEFAULT_SAVE = "saves/server.sav";
+    private static final float AUTOSAVE_INTERVAL = 60f;      // seconds
+    private static final float METRICS_INTERVAL = 10f;       // seconds
+    private static final int TILE_SIZE = 32;                 // same as Core, positions arrive in pixels
+
+    private final int port;
+    private final File saveFile;
+    private final PrintWriter metricsOut;
+
+    private final WorldState world = new WorldState(Island.WIDTH, Island.HEIGHT);
+    private final WorldSimulation sim = new WorldSimulation(world, TILE_SIZE);
+    private final WorldSave.Meta meta = new WorldSave.Meta(0);   // no local player, so no inventory
+    private final AutoSaver autoSaver;
+    private final Host host;
+
+    private volatile boolean running = true;
+    private volatile Thread loopThread;
+
+    // --- metrics since the last report ---
+    private long tickNanos, maxTickNanos;
+    private int ticks, lateTicks;
+
+    public ServerLauncher(int port, File saveFile, PrintWriter metricsOut) {
+        this.port = port;
+        this.saveFile = saveFile;
+        this.metricsOut = metricsOut;
+        this.autoSaver = new AutoSaver(saveFile, world.width, world.height, world.seed, 0);
+        this.host = new Host(port, message -> System.out.println(message));
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        File saveFile = new File(args.length > 1 ? args[1] : DEFAULT_SAVE);
+        PrintWriter metricsOut = null;
+        if (args.length > 2) {
+            try {
+                boolean fresh = !new File(args[2]).exists();
+                metricsOut = new PrintWriter(new FileWriter(args[2], true), true);
+                if (fresh) metricsOut.println("time_ms,tick_avg_ms,tick_max_ms,ticks,late_ticks,heap_mb,clients");
+            } catch (IOException e) {
+                System.out.println("Can't open metrics file " + args[2] + ": " + e.getMessage());
+            }
+        }
+
+        ServerLauncher server = new ServerLauncher(port, saveFile, metricsOut);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "server-shutdown"));
+        server.run();
+    }
+
+    private void load() {
+        if (!saveFile.exists()) {
+            System.out.println("No save at " + saveFile + ", starting a fresh island");
+            return;
+        }
+        long start = System.nanoTime();
+        WorldSave.Reader reader = null;
+        try {
+            reader = new WorldSave.Reader(saveFile);
+            sim.load(reader, meta);   // the world keeps the reader and reads regions as they are touched
+        } catch (Exception e) {
+            System.out.println("Failed to load world save: " + e.getMessage());
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                }
+            }
+            File aside = WorldSave.setAside(saveFile);
+            if (aside != null) System.out.println("Kept the old save as " + aside + ", starting a fresh island");
+            return;
+        }
+        System.out.println("Loaded world in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    private void save() {
+        meta.clock = sim.getClock().exact();
+        autoSaver.save(world, meta);
+    }
+
+    /** Runs the fixed tick loop until the process is stopped. */
+    public void run() {
+        loopThread = Thread.currentThread();
+        world.prefetch(0, 0, world.width - 1, world.height - 1);
+        load();
+        sim.attachHost(host, null);
+        host.start();
+        System.out.println("Server listening on port " + port + " at " + (int) FixedStep.DEFAULT_RATE + " ticks/s");
+
+        FixedStep step = new FixedStep(FixedStep.DEFAULT_RATE);
+        long stepNanos = Math.round(step.step * 1e9);
+        float autosaveTimer = 0f, metricsTimer = 0f;
+        long last = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            int steps = step.advance((now - last) / 1e9f);
+            last = now;
+            if (steps > 1) lateTicks += steps - 1;
+
+            for (int s = 0; s < steps; s++) {
+                long start = System.nanoTime();
+                sim.tick(step.step);
+                long took = System.nanoTime() - start;
+                tickNanos += took;
+                if (took > maxTickNanos) maxTickNanos = took;
+                ticks++;
+
+                autosaveTimer += step.step;
+                if (autosaveTimer >= AUTOSAVE_INTERVAL) {
+                    autosaveTimer = 0f;
+                    save();
+                }
+                metricsTimer += step.step;
+                if (metricsTimer >= METRICS_INTERVAL) {
+                    metricsTimer = 0f;
+                    report();
+                }
+            }
+
+            // sleep until the next tick is due
+            long wait = stepNanos - Math.round(step.alpha() * stepNanos) - (System.nanoTime() - now);
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+
+        // the world is only touched on this thread, so the final save happens here too,
+        // waiting for a free buffer instead of being skipped
+        meta.clock = sim.getClock().exact();
+        if (!autoSaver.saveNow(world, meta)) System.out.println("Final world save failed, the last autosave is kept");
+        autoSaver.shutdown();
+        world.dispose();
+        host.stop();
+        if (metricsOut != null) metricsOut.close();
+        System.out.println("Server stopped");
+    }
+
+    private void report() {
+        Runtime rt = Runtime.getRuntime();
+        long usedMb = (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+        float avgMs = ticks > 0 ? tickNanos / 1e6f / ticks : 0f;
+        String line = String.format("tick avg %.3f ms, max %.3f ms, ticks %d, late %d | heap %d/%d MB | clients %d | save %.1f ms",
+            avgMs, maxTickNanos / 1e6f, ticks, lateTicks, usedMb, rt.maxMemory() / (1024 * 1024),
+            sim.getClientCount(), autoSaver.getLastWriteMs());
+        System.out.println(line);
+
+        if (metricsOut != null) {
+            metricsOut.println(System.currentTimeMillis() + "," + avgMs + "," + maxTickNanos / 1e6f + ","
+                + ticks + "," + lateTicks + "," + usedMb + "," + sim.getClientCount());
+        }
+
+        tickNanos = 0;
+        maxTickNanos = 0;
+        ticks = 0;
+        lateTicks = 0;
+    }
+
+    /** Stops the tick loop and waits for it to save and close the socket. */
+    public void stop() {
+        running = false;
+        Thread loop = loopThread;
+        if (loop == null || loop == Thread.currentThread()) return;
+        try {
+            loop.join(10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}